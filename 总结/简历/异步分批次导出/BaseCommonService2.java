@@ -1,5 +1,9 @@
 package com.oppo.corehrpt.basic.service;
 
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.oppo.corehrpt.basic.enums.ExportStatusEnum;
 import com.oppo.corehrpt.basic.export.entity.ComExportRecordVO;
 import com.oppo.corehrpt.basic.pojo.vo.GBassFilePO;
 import com.oppo.corehrpt.basic.service.rpc.BaseCommonRpcApi;
@@ -9,6 +13,7 @@ import io.swagger.annotations.ApiImplicitParam;
 import io.swagger.annotations.ApiImplicitParams;
 import io.swagger.annotations.ApiOperation;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -17,6 +22,12 @@ import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * @date 2025-02-09
@@ -70,6 +81,239 @@ public class BaseCommonService2 {
         baseMapper.updateById(exportRecordPO);
     }
 
+    /**
+     * 查询仍未完成（排队中、执行中）的导出记录
+     *
+     * @param ids 导出记录ID列表
+     * @return 未完成的导出记录ID
+     */
+    public List<Long> listUnfinishedExportRecordIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<ComExportRecordPO> poList = baseMapper.selectList(Wrappers.<ComExportRecordPO>lambdaQuery()
+                .select(ComExportRecordPO::getId)
+                .in(ComExportRecordPO::getId, ids)
+                .in(ComExportRecordPO::getStatus, ExportStatusEnum.RUNNING.getCode(), ExportStatusEnum.WAITING.getCode()));
+        return poList.stream().map(ComExportRecordPO::getId).collect(Collectors.toList());
+    }
+
+    /**
+     * 查询用户某任务类型、某数据集最近一次导出成功的增量水位
+     *
+     * @param creator 导出发起人账号
+     * @param taskType 任务类型
+     * @param watermarkKey 数据集key，查询条件的摘要
+     * @return 结束水位，没有成功的增量导出时返回null
+     */
+    public String getLastExportWatermark(String creator, String taskType, String watermarkKey) {
+        List<ComExportRecordPO> poList = baseMapper.selectList(Wrappers.<ComExportRecordPO>lambdaQuery()
+                .select(ComExportRecordPO::getWatermarkTo)
+                .eq(ComExportRecordPO::getCreator, creator)
+                .eq(ComExportRecordPO::getTaskType, taskType)
+                .eq(ComExportRecordPO::getWatermarkKey, watermarkKey)
+                .eq(ComExportRecordPO::getStatus, ExportStatusEnum.SUCCESS.getCode())
+                .isNotNull(ComExportRecordPO::getWatermarkTo)
+                .orderByDesc(ComExportRecordPO::getId)
+                .last("limit 1"));
+        return poList.isEmpty() ? null : poList.get(0).getWatermarkTo();
+    }
+
+    /**
+     * 登记集群队列任务，导出记录标记为排队中，等待工作节点认领
+     *
+     * @param id 导出记录ID
+     * @param jobPayload 任务内容JSON（查询条件、任务类型、导出选项、发起人等）
+     */
+    public void enqueueExportJob(Long id, String jobPayload) {
+        baseMapper.update(null, Wrappers.<ComExportRecordPO>lambdaUpdate()
+                .set(ComExportRecordPO::getJobPayload, jobPayload)
+                .set(ComExportRecordPO::getStatus, ExportStatusEnum.WAITING.getCode())
+                .set(ComExportRecordPO::getLeaseOwner, null)
+                .set(ComExportRecordPO::getLeaseExpireTime, null)
+                .set(ComExportRecordPO::getClaimCount, 0)
+                .set(ComExportRecordPO::getCancelRequested, false)
+                .eq(ComExportRecordPO::getId, id));
+    }
+
+    /**
+     * 查询可认领的集群队列任务：排队中或执行中、未被认领或租约已过期
+     *
+     * @param taskTypes 本节点支持的任务类型
+     * @param now 当前时间
+     * @param maxClaims 最多认领次数，达到的任务不再返回
+     * @param limit 最多返回条数
+     * @return 导出记录ID，按ID升序
+     */
+    public List<Long> listClaimableExportJobIds(Collection<String> taskTypes, Date now, int maxClaims, int limit) {
+        if (taskTypes.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        List<ComExportRecordPO> poList = baseMapper.selectList(claimableQuery(now)
+                .select(ComExportRecordPO::getId)
+                .in(ComExportRecordPO::getTaskType, taskTypes)
+                .lt(ComExportRecordPO::getClaimCount, maxClaims)
+                .orderByAsc(ComExportRecordPO::getId)
+                .last("limit " + limit));
+        return poList.stream().map(ComExportRecordPO::getId).collect(Collectors.toList());
+    }
+
+    /**
+     * 认领集群队列任务，按条件更新，多个节点并发认领同一任务时只有一个成功
+     *
+     * @param id 导出记录ID
+     * @param nodeId 工作节点标识
+     * @param now 当前时间
+     * @param leaseExpireTime 租约到期时间
+     * @return 认领成功返回任务内容JSON，已被其他节点认领返回null
+     */
+    public String claimExportJob(Long id, String nodeId, Date now, Date leaseExpireTime) {
+        int rows = baseMapper.update(null, claimableUpdate(now)
+                .set(ComExportRecordPO::getLeaseOwner, nodeId)
+                .set(ComExportRecordPO::getLeaseExpireTime, leaseExpireTime)
+                .set(ComExportRecordPO::getStatus, ExportStatusEnum.RUNNING.getCode())
+                .setSql("claim_count = claim_count + 1")
+                .eq(ComExportRecordPO::getId, id));
+        if (rows != 1) {
+            return null;
+        }
+        ComExportRecordPO po = baseMapper.selectOne(Wrappers.<ComExportRecordPO>lambdaQuery()
+                .select(ComExportRecordPO::getJobPayload)
+                .eq(ComExportRecordPO::getId, id));
+        return po == null ? null : po.getJobPayload();
+    }
+
+    /**
+     * 续期集群队列任务的租约
+     *
+     * @param id 导出记录ID
+     * @param nodeId 工作节点标识
+     * @param leaseExpireTime 新的租约到期时间
+     * @return 续期成功返回true；租约已被其他节点接管或任务已结束返回false
+     */
+    public boolean renewExportJobLease(Long id, String nodeId, Date leaseExpireTime) {
+        return baseMapper.update(null, Wrappers.<ComExportRecordPO>lambdaUpdate()
+                .set(ComExportRecordPO::getLeaseExpireTime, leaseExpireTime)
+                .eq(ComExportRecordPO::getId, id)
+                .eq(ComExportRecordPO::getLeaseOwner, nodeId)
+                .in(ComExportRecordPO::getStatus, ExportStatusEnum.RUNNING.getCode(), ExportStatusEnum.WAITING.getCode())) == 1;
+    }
+
+    /**
+     * 结束集群队列任务，只有仍持有租约的节点可以更新，避免租约过期的节点覆盖重新认领节点的结果
+     *
+     * @param recordVO 导出记录VO
+     * @param nodeId 工作节点标识
+     * @return 更新成功返回true；租约已被其他节点接管返回false
+     */
+    public boolean finishExportJob(ComExportRecordVO recordVO, String nodeId) {
+        ComExportRecordPO po = new ComExportRecordPO();
+        BeanUtils.copyProperties(recordVO, po);
+        po.setUpdateDate(new Date());
+        po.setUpdateBy(UserContextHolder.getUserAccount());
+        po.setUpdateByName(UserContextHolder.getUserName());
+        return baseMapper.update(po, Wrappers.<ComExportRecordPO>lambdaUpdate()
+                .eq(ComExportRecordPO::getId, recordVO.getId())
+                .eq(ComExportRecordPO::getLeaseOwner, nodeId)) == 1;
+    }
+
+    /**
+     * 取消尚未被认领（或租约已过期）的集群队列任务，直接标记为已取消
+     *
+     * @param id 导出记录ID
+     * @param creator 操作人账号，须为发起人
+     * @param now 当前时间
+     * @return 取消成功返回true
+     */
+    public boolean cancelQueuedExportJob(Long id, String creator, Date now) {
+        return baseMapper.update(null, claimableUpdate(now)
+                .set(ComExportRecordPO::getStatus, ExportStatusEnum.CANCELLED.getCode())
+                .set(ComExportRecordPO::getErrorMsg, "Cancelled by " + creator + ".")
+                .set(ComExportRecordPO::getEndTime, now)
+                .set(ComExportRecordPO::getUpdateDate, now)
+                .eq(ComExportRecordPO::getId, id)
+                .eq(ComExportRecordPO::getCreator, creator)) == 1;
+    }
+
+    /**
+     * 请求取消其他节点执行中的集群队列任务，执行节点续期租约时读取标记并停止导出
+     *
+     * @param id 导出记录ID
+     * @param creator 操作人账号，须为发起人
+     * @return 任务未结束并已标记返回true
+     */
+    public boolean requestCancelExportJob(Long id, String creator) {
+        return baseMapper.update(null, Wrappers.<ComExportRecordPO>lambdaUpdate()
+                .set(ComExportRecordPO::getCancelRequested, true)
+                .eq(ComExportRecordPO::getId, id)
+                .eq(ComExportRecordPO::getCreator, creator)
+                .isNotNull(ComExportRecordPO::getJobPayload)
+                .in(ComExportRecordPO::getStatus, ExportStatusEnum.RUNNING.getCode(), ExportStatusEnum.WAITING.getCode())) == 1;
+    }
+
+    /**
+     * 查询已请求取消的集群队列任务
+     *
+     * @param ids 本节点认领中的导出记录ID
+     * @return 已请求取消的导出记录ID
+     */
+    public List<Long> listCancelRequestedExportJobIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<ComExportRecordPO> poList = baseMapper.selectList(Wrappers.<ComExportRecordPO>lambdaQuery()
+                .select(ComExportRecordPO::getId)
+                .in(ComExportRecordPO::getId, ids)
+                .eq(ComExportRecordPO::getCancelRequested, true));
+        return poList.stream().map(ComExportRecordPO::getId).collect(Collectors.toList());
+    }
+
+    /**
+     * 释放本节点认领但无法执行的集群队列任务，重新排队，认领次数不回退
+     *
+     * @param id 导出记录ID
+     * @param nodeId 工作节点标识
+     */
+    public void releaseExportJob(Long id, String nodeId) {
+        baseMapper.update(null, Wrappers.<ComExportRecordPO>lambdaUpdate()
+                .set(ComExportRecordPO::getLeaseOwner, null)
+                .set(ComExportRecordPO::getLeaseExpireTime, null)
+                .set(ComExportRecordPO::getStatus, ExportStatusEnum.WAITING.getCode())
+                .eq(ComExportRecordPO::getId, id)
+                .eq(ComExportRecordPO::getLeaseOwner, nodeId));
+    }
+
+    /**
+     * 将认领次数已用完、且无有效租约的集群队列任务标记为失败
+     *
+     * @param now 当前时间
+     * @param maxClaims 最多认领次数
+     * @param errorMsg 错误信息
+     * @return 标记的任务数
+     */
+    public int failExhaustedExportJobs(Date now, int maxClaims, String errorMsg) {
+        return baseMapper.update(null, claimableUpdate(now)
+                .set(ComExportRecordPO::getStatus, ExportStatusEnum.FAILED.getCode())
+                .set(ComExportRecordPO::getErrorMsg, errorMsg)
+                .set(ComExportRecordPO::getEndTime, now)
+                .set(ComExportRecordPO::getUpdateDate, now)
+                .ge(ComExportRecordPO::getClaimCount, maxClaims));
+    }
+
+    private static LambdaQueryWrapper<ComExportRecordPO> claimableQuery(Date now) {
+        return Wrappers.<ComExportRecordPO>lambdaQuery()
+                .isNotNull(ComExportRecordPO::getJobPayload)
+                .in(ComExportRecordPO::getStatus, ExportStatusEnum.RUNNING.getCode(), ExportStatusEnum.WAITING.getCode())
+                .and(w -> w.isNull(ComExportRecordPO::getLeaseOwner).or().lt(ComExportRecordPO::getLeaseExpireTime, now));
+    }
+
+    private static LambdaUpdateWrapper<ComExportRecordPO> claimableUpdate(Date now) {
+        return Wrappers.<ComExportRecordPO>lambdaUpdate()
+                .isNotNull(ComExportRecordPO::getJobPayload)
+                .in(ComExportRecordPO::getStatus, ExportStatusEnum.RUNNING.getCode(), ExportStatusEnum.WAITING.getCode())
+                .and(w -> w.isNull(ComExportRecordPO::getLeaseOwner).or().lt(ComExportRecordPO::getLeaseExpireTime, now));
+    }
+
     /**
      * 上传文件
      *
@@ -88,4 +332,33 @@ public class BaseCommonService2 {
 
         return gBassFilePO;
     }
+
+    /**
+     * 删除文件服务器上的文件
+     *
+     * @param fileId 文件ID
+     */
+    public void deleteFile(String fileId) {
+        logger.info("delete file:{}", fileId);
+        fileService.deleteFile(fileId);
+    }
+
+    /**
+     * 流式上传文件，边读边传，不在磁盘或堆内存中保留完整文件
+     *
+     * @param fileName 文件名
+     * @param inputStream 文件输入流，由调用方关闭
+     * @param securiedType 安全类型
+     * @param operator 操作人
+     * @param users 用户列表
+     * @param expireTime 过期时间
+     * @return 文件信息
+     */
+    public ResultVo<GBassFilePO> uploadFile(String fileName, InputStream inputStream, Integer securiedType, String operator, String users, Long expireTime) {
+        logger.info("receive file stream:{}", fileName);
+        GBassFilePO gBassFilePO = fileService.uploadFile(fileName, securiedType,
+                inputStream, operator, users, expireTime, tag);
+
+        return gBassFilePO;
+    }
 }
@@ -0,0 +1,129 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * CSV导出写入器
+ * <p>
+ * 输出UTF-8（带BOM，Excel打开不乱码），可选gzip压缩；行内容在复用的缓冲区中拼接后整行写出，
+ * 单元格值沿用 getDataList 的转换结果（日期格式、工号数值化）
+ * </p>
+ */
+public class CsvExportWriter implements Closeable {
+
+    /** 写出缓冲区大小 */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final char SEPARATOR = ',';
+
+    private static final char QUOTE = '"';
+
+    private static final String LINE_SEPARATOR = "\r\n";
+
+    private final Writer writer;
+
+    /** 复用的行缓冲区 */
+    private final StringBuilder line = new StringBuilder(512);
+
+    /**
+     * 创建CSV写入器
+     *
+     * @param outputStream 输出流，关闭写入器时一并关闭
+     * @param gzip         是否gzip压缩
+     * @throws IOException 创建压缩流失败
+     */
+    public CsvExportWriter(OutputStream outputStream, boolean gzip) throws IOException {
+        OutputStream out = gzip ? new GZIPOutputStream(outputStream, BUFFER_SIZE) : outputStream;
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        this.writer.write('\uFEFF');
+    }
+
+    /**
+     * 写入表头
+     *
+     * @param headList 表头列表，每列取第一行标题
+     * @throws IOException 写入失败
+     */
+    public void writeHead(List<List<String>> headList) throws IOException {
+        line.setLength(0);
+        for (int i = 0; i < headList.size(); i++) {
+            if (i > 0) {
+                line.append(SEPARATOR);
+            }
+            List<String> head = headList.get(i);
+            appendCell(head.isEmpty() ? "" : head.get(0));
+        }
+        writer.append(line).append(LINE_SEPARATOR);
+    }
+
+    /**
+     * 写入数据行
+     *
+     * @param dataList Excel数据格式的二维列表，外层List代表行，内层List代表列
+     * @throws IOException 写入失败
+     */
+    public void write(List<List<Object>> dataList) throws IOException {
+        for (List<Object> row : dataList) {
+            line.setLength(0);
+            for (int i = 0; i < row.size(); i++) {
+                if (i > 0) {
+                    line.append(SEPARATOR);
+                }
+                appendCell(row.get(i));
+            }
+            writer.append(line).append(LINE_SEPARATOR);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private void appendCell(Object value) {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof BigDecimal) {
+            line.append(((BigDecimal) value).toPlainString());
+            return;
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            line.append(value);
+            return;
+        }
+        String str = value.toString();
+        if (!needQuote(str)) {
+            line.append(str);
+            return;
+        }
+        line.append(QUOTE);
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            if (c == QUOTE) {
+                line.append(QUOTE);
+            }
+            line.append(c);
+        }
+        line.append(QUOTE);
+    }
+
+    private static boolean needQuote(String str) {
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            if (c == SEPARATOR || c == QUOTE || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
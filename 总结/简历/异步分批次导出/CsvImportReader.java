@@ -0,0 +1,117 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CSV导入读取器，与 {@link CsvExportWriter} 相对
+ * <p>
+ * 流式逐条读取UTF-8（可带BOM）CSV记录，支持双引号包裹的单元格、转义的双引号和单元格内换行
+ * </p>
+ */
+public class CsvImportReader implements Closeable {
+
+    /** 读取缓冲区大小 */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final char SEPARATOR = ',';
+
+    private static final char QUOTE = '"';
+
+    private final Reader reader;
+
+    /** 复用的单元格缓冲区 */
+    private final StringBuilder cell = new StringBuilder(64);
+
+    /** 预读的一个字符，-2表示没有 */
+    private int pushback = -2;
+
+    /**
+     * 创建CSV读取器
+     *
+     * @param inputStream 输入流，关闭读取器时一并关闭
+     * @throws IOException 读取BOM失败
+     */
+    public CsvImportReader(InputStream inputStream) throws IOException {
+        this.reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        int first = reader.read();
+        if (first != '\uFEFF') {
+            pushback = first;
+        }
+    }
+
+    /**
+     * 读取下一条记录
+     *
+     * @return 单元格列表，文件结束时返回null
+     * @throws IOException 读取失败
+     */
+    public List<String> readRecord() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> record = new ArrayList<>();
+        cell.setLength(0);
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    // 引号未闭合，按已读内容结束
+                    record.add(cell.toString());
+                    return record;
+                }
+                if (c == QUOTE) {
+                    int next = read();
+                    if (next == QUOTE) {
+                        cell.append(QUOTE);
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    cell.append((char) c);
+                }
+            } else if (c == QUOTE && cell.length() == 0) {
+                quoted = true;
+            } else if (c == SEPARATOR) {
+                record.add(cell.toString());
+                cell.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') {
+                        pushback = next;
+                    }
+                }
+                record.add(cell.toString());
+                return record;
+            } else {
+                cell.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (pushback != -2) {
+            int c = pushback;
+            pushback = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
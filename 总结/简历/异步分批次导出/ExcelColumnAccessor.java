@@ -0,0 +1,124 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+import com.oppo.corehrpt.basic.export.annotation.ExcelColumn;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Excel列访问器
+ * <p>
+ * 每个模型类只在首次使用时解析一次 @ExcelColumn 字段（排序、过滤、注解、值转换器），并编译成 MethodHandle 读取句柄，
+ * 之后按 类 + 排除字段 + 包含字段 缓存，导出时逐行读取不再走反射和注解查找
+ * </p>
+ */
+@Getter
+public class ExcelColumnAccessor {
+
+    /** 访问器缓存，key: 模型类 + 字段过滤条件 */
+    private static final Map<AccessorKey, List<ExcelColumnAccessor>> ACCESSOR_CACHE = new ConcurrentHashMap<>();
+
+    /** 统一的读取句柄签名：(Object)Object */
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    /** 字段 */
+    private final Field field;
+
+    /** 字段名 */
+    private final String fieldName;
+
+    /** 已解析的列注解 */
+    private final ExcelColumn excelColumn;
+
+    /** 字段读取句柄 */
+    private final MethodHandle getter;
+
+    /** 单元格值转换器 */
+    private final ExcelValueConverter converter;
+
+    private ExcelColumnAccessor(Field field, MethodHandle getter) {
+        this.field = field;
+        this.fieldName = field.getName();
+        this.excelColumn = field.getAnnotation(ExcelColumn.class);
+        this.getter = getter;
+        this.converter = ExcelValueConverters.resolve(field);
+    }
+
+    /**
+     * 获取模型类的列访问器（按 @ExcelColumn.index 升序）
+     *
+     * @param clazz            模型类
+     * @param excludeFieldList 要排除的字段名列表，可为null
+     * @param includeFieldList 要包含的字段名列表，可为null
+     * @return 不可变的列访问器列表
+     */
+    public static List<ExcelColumnAccessor> of(Class<?> clazz, List<String> excludeFieldList, List<String> includeFieldList) {
+        AccessorKey key = new AccessorKey(clazz, copyOf(excludeFieldList), copyOf(includeFieldList));
+        return ACCESSOR_CACHE.computeIfAbsent(key, k -> build(k.getClazz(), k.getExcludeFieldList(), k.getIncludeFieldList()));
+    }
+
+    /**
+     * 读取字段原始值
+     *
+     * @param target 数据对象
+     * @return 字段值
+     * @throws Throwable 读取失败
+     */
+    public Object read(Object target) throws Throwable {
+        return getter.invokeExact(target);
+    }
+
+    /**
+     * 读取字段值并转换为Excel单元格值
+     *
+     * @param target 数据对象
+     * @return 单元格值，字段值为null时返回空字符串
+     * @throws Throwable 读取失败
+     */
+    public Object readCell(Object target) throws Throwable {
+        Object value = getter.invokeExact(target);
+        return value == null ? "" : converter.convert(value);
+    }
+
+    private static List<ExcelColumnAccessor> build(Class<?> clazz, List<String> excludeFieldList, List<String> includeFieldList) {
+        List<Field> fieldList = ExportHelper2.extractSortFields(clazz.getDeclaredFields(), excludeFieldList, includeFieldList);
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        List<ExcelColumnAccessor> accessorList = new ArrayList<>(fieldList.size());
+        for (Field field : fieldList) {
+            try {
+                field.setAccessible(true);
+                MethodHandle getter = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+                accessorList.add(new ExcelColumnAccessor(field, getter));
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Unable to access field " + clazz.getName() + "." + field.getName(), e);
+            }
+        }
+        return Collections.unmodifiableList(accessorList);
+    }
+
+    private static List<String> copyOf(List<String> list) {
+        return list == null || list.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(list));
+    }
+
+    /**
+     * 访问器缓存key
+     */
+    @Getter
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static final class AccessorKey {
+        private final Class<?> clazz;
+        private final List<String> excludeFieldList;
+        private final List<String> includeFieldList;
+    }
+}
@@ -0,0 +1,97 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+import com.oppo.corehrpt.basic.export.entity.ExcelModelEntity;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Excel模型元数据缓存
+ * <p>
+ * 缓存 extractExcelModel 的解析结果，key: 模型类 + 排除字段 + 包含字段 + 是否样例 + 语言。
+ * 缓存内为只读快照（列表不可修改），每次获取返回浅拷贝，调用方设置 secondSheetList 等任务级属性互不影响
+ * </p>
+ */
+public final class ExcelModelCache {
+
+    /** 最大缓存条数，超出后按LRU淘汰 */
+    private static final int MAX_SIZE = 512;
+
+    private static final Map<ModelKey, ExcelModelEntity> CACHE = Collections.synchronizedMap(
+            new LinkedHashMap<ModelKey, ExcelModelEntity>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<ModelKey, ExcelModelEntity> eldest) {
+                    return size() > MAX_SIZE;
+                }
+            });
+
+    private ExcelModelCache() {
+    }
+
+    /**
+     * 获取模型元数据，不存在时通过 loader 解析并缓存
+     *
+     * @param clazz            模型类
+     * @param excludeFieldList 要排除的字段名列表
+     * @param includeFieldList 要包含的字段名列表
+     * @param isExample        是否包含样例数据和备注
+     * @param lang             语言标识
+     * @param loader           元数据解析函数，返回的实体列表须不可修改
+     * @return 元数据快照副本
+     */
+    public static ExcelModelEntity get(Class<?> clazz, List<String> excludeFieldList, List<String> includeFieldList,
+                                       boolean isExample, String lang, Supplier<ExcelModelEntity> loader) {
+        ModelKey key = new ModelKey(clazz, copyOf(excludeFieldList), copyOf(includeFieldList), isExample, lang);
+        ExcelModelEntity snapshot = CACHE.get(key);
+        if (snapshot == null) {
+            // 解析过程无副作用，并发下重复解析可接受，避免持锁执行注解扫描
+            snapshot = loader.get();
+            CACHE.put(key, snapshot);
+        }
+        return copy(snapshot);
+    }
+
+    /**
+     * 清空缓存
+     */
+    public static void clear() {
+        CACHE.clear();
+    }
+
+    /**
+     * 复制元数据快照，列表引用共享（只读），任务级属性独立
+     */
+    private static ExcelModelEntity copy(ExcelModelEntity source) {
+        ExcelModelEntity entity = new ExcelModelEntity(source.getTaskType(), source.getFileName(), source.getSheetName(),
+                source.getHeadList(), source.getWidthList(), source.getTitleHeight(), source.getContentHeight());
+        entity.setExcludeFieldList(source.getExcludeFieldList());
+        entity.setAlignmentList(source.getAlignmentList());
+        entity.setExampleList(source.getExampleList());
+        entity.setRemark(source.getRemark());
+        entity.setRemarkHeight(source.getRemarkHeight());
+        return entity;
+    }
+
+    private static List<String> copyOf(List<String> list) {
+        return list == null || list.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(list));
+    }
+
+    /**
+     * 元数据缓存key
+     */
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static final class ModelKey {
+        private final Class<?> clazz;
+        private final List<String> excludeFieldList;
+        private final List<String> includeFieldList;
+        private final boolean example;
+        private final String lang;
+    }
+}
@@ -0,0 +1,27 @@
+package com.oppo.corehrpt.basic.export.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.math.RoundingMode;
+
+/**
+ * 数值列导出格式，与 @ExcelColumn 一起标注在数值字段上，导出时按小数位数舍入
+ */
+@Documented
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ExcelNumberFormat {
+
+    /**
+     * 小数位数
+     */
+    int scale();
+
+    /**
+     * 舍入方式，默认四舍五入
+     */
+    RoundingMode roundingMode() default RoundingMode.HALF_UP;
+}
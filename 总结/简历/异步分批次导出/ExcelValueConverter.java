@@ -0,0 +1,16 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+/**
+ * Excel单元格值转换器，将字段原始值转换为适合Excel显示的值
+ */
+@FunctionalInterface
+public interface ExcelValueConverter {
+
+    /**
+     * 转换字段值
+     *
+     * @param value 字段原始值，不为null
+     * @return 转换后的值
+     */
+    Object convert(Object value);
+}
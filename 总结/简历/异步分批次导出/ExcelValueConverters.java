@@ -0,0 +1,199 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+import com.oppo.corehrpt.basic.export.annotation.ExcelColumn;
+import com.oppo.corehrpt.basic.export.annotation.ExcelNumberFormat;
+import com.oppo.corehrpt.basic.util.DateUtil;
+import org.apache.commons.lang3.ClassUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Excel单元格值转换器注册表
+ * <p>
+ * 在模型首次使用时为每列解析一个转换器，导出时逐单元格直接调用，
+ * 不再按类型名称字符串分支、按字段名判断工号、按格式串查找日期格式化器。
+ * 解析顺序：按字段匹配的规则（业务规则优先于内置的工号、@ExcelNumberFormat 规则）、
+ * 业务注册的类型、内置类型；类型按基本类型的包装类及字段类型的父类、接口查找。
+ * 业务可通过 {@link #register(Predicate, Function)} 按字段、{@link #register(Class, Function)} 按类型扩展
+ * </p>
+ */
+public final class ExcelValueConverters {
+
+    /** LocalDate 默认格式 */
+    private static final String PATTERN_LOCAL_DATE = "yyyy-MM-dd";
+
+    /** 原样输出 */
+    private static final ExcelValueConverter IDENTITY = value -> value;
+
+    /** 按字段匹配的规则，按顺序检查，业务规则在前 */
+    private static final Deque<FieldRule> RULES = new ConcurrentLinkedDeque<>();
+
+    /** 业务注册的类型 -> 转换器工厂 */
+    private static final Map<Class<?>, Function<Field, ExcelValueConverter>> FACTORIES = new ConcurrentHashMap<>();
+
+    /** 内置类型 -> 转换器工厂，业务未注册对应类型时使用 */
+    private static final Map<Class<?>, Function<Field, ExcelValueConverter>> BUILT_IN = new ConcurrentHashMap<>();
+
+    /** 格式串 -> 线程安全的日期格式化器 */
+    private static final Map<String, DateTimeFormatter> FORMATTERS = new ConcurrentHashMap<>();
+
+    static {
+        // 工号列、数值格式列按字段匹配，业务注册 String、BigDecimal 等类型转换器后仍然生效
+        RULES.addLast(new FieldRule(ExcelValueConverters::isEmpNo, field -> ExcelValueConverters::empNoConverter));
+        RULES.addLast(new FieldRule(field -> field.isAnnotationPresent(ExcelNumberFormat.class)
+                && Number.class.isAssignableFrom(ClassUtils.primitiveToWrapper(field.getType())), ExcelValueConverters::scaleConverter));
+        BUILT_IN.put(Date.class, field -> {
+            DateTimeFormatter formatter = getFormatter(getPattern(field, DateUtil.PATTERN_STANDARD10H));
+            return value -> formatter.format(Instant.ofEpochMilli(((Date) value).getTime()));
+        });
+        BUILT_IN.put(LocalDateTime.class, field -> {
+            DateTimeFormatter formatter = getFormatter(getPattern(field, DateUtil.PATTERN_STANDARD10H));
+            return value -> formatter.format((LocalDateTime) value);
+        });
+        BUILT_IN.put(LocalDate.class, field -> {
+            DateTimeFormatter formatter = getFormatter(getPattern(field, PATTERN_LOCAL_DATE));
+            return value -> formatter.format((LocalDate) value);
+        });
+    }
+
+    private ExcelValueConverters() {
+    }
+
+    /**
+     * 注册类型转换器工厂，需在模型首次导出前注册；基本类型与包装类等同，也用于该类型的子类
+     *
+     * @param type    字段类型
+     * @param factory 转换器工厂，入参为字段，可读取 @ExcelColumn 配置
+     */
+    public static void register(Class<?> type, Function<Field, ExcelValueConverter> factory) {
+        FACTORIES.put(ClassUtils.primitiveToWrapper(type), factory);
+    }
+
+    /**
+     * 注册按字段匹配的转换器工厂，需在模型首次导出前注册；先于类型查找，后注册的优先
+     *
+     * @param matcher 字段匹配条件，如字段名、注解
+     * @param factory 转换器工厂，入参为字段，可读取 @ExcelColumn 配置
+     */
+    public static void register(Predicate<Field> matcher, Function<Field, ExcelValueConverter> factory) {
+        RULES.addFirst(new FieldRule(matcher, factory));
+    }
+
+    /**
+     * 解析字段的转换器
+     *
+     * @param field 字段
+     * @return 转换器，未匹配的类型原样输出，枚举输出 toString
+     */
+    public static ExcelValueConverter resolve(Field field) {
+        for (FieldRule rule : RULES) {
+            if (rule.matcher.test(field)) {
+                return rule.factory.apply(field);
+            }
+        }
+        Class<?> type = ClassUtils.primitiveToWrapper(field.getType());
+        Function<Field, ExcelValueConverter> factory = lookup(FACTORIES, type);
+        if (factory == null) {
+            factory = lookup(BUILT_IN, type);
+        }
+        if (factory != null) {
+            return factory.apply(field);
+        }
+        if (type.isEnum()) {
+            return Object::toString;
+        }
+        return IDENTITY;
+    }
+
+    /**
+     * 按类型、父类、接口的顺序查找转换器工厂
+     */
+    private static Function<Field, ExcelValueConverter> lookup(Map<Class<?>, Function<Field, ExcelValueConverter>> factories, Class<?> type) {
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            Function<Field, ExcelValueConverter> factory = factories.get(c);
+            if (factory != null) {
+                return factory;
+            }
+        }
+        for (Class<?> c : ClassUtils.getAllInterfaces(type)) {
+            Function<Field, ExcelValueConverter> factory = factories.get(c);
+            if (factory != null) {
+                return factory;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isEmpNo(Field field) {
+        return field.getType() == String.class
+                && ("empNo".equalsIgnoreCase(field.getName()) || "emplid".equalsIgnoreCase(field.getName()));
+    }
+
+    /**
+     * 工号转换器，纯数字时转成数值类型（防止导出的单元格带警告）
+     */
+    private static Object empNoConverter(Object value) {
+        String v = (String) value;
+        if (StringUtils.isNumeric(v) && !v.startsWith("0")) {
+            try {
+                return new BigDecimal(v);
+            } catch (Exception e) {
+                // do nothing
+            }
+        }
+        return v;
+    }
+
+    /**
+     * 数值格式转换器，按 @ExcelNumberFormat 的小数位数舍入
+     */
+    private static ExcelValueConverter scaleConverter(Field field) {
+        ExcelNumberFormat format = field.getAnnotation(ExcelNumberFormat.class);
+        int scale = format.scale();
+        RoundingMode roundingMode = format.roundingMode();
+        return value -> {
+            BigDecimal number = value instanceof BigDecimal ? (BigDecimal) value : new BigDecimal(value.toString());
+            return number.setScale(scale, roundingMode);
+        };
+    }
+
+    private static String getPattern(Field field, String defaultPattern) {
+        ExcelColumn excelColumn = field.getAnnotation(ExcelColumn.class);
+        String pattern = excelColumn == null ? null : excelColumn.dateTimeFormat();
+        return StringUtils.isBlank(pattern) ? defaultPattern : pattern;
+    }
+
+    private static DateTimeFormatter getFormatter(String pattern) {
+        return FORMATTERS.computeIfAbsent(pattern, p -> DateTimeFormatter.ofPattern(p).withZone(ZoneId.systemDefault()));
+    }
+
+    /**
+     * 按字段匹配的转换器规则
+     */
+    private static class FieldRule {
+
+        private final Predicate<Field> matcher;
+
+        private final Function<Field, ExcelValueConverter> factory;
+
+        FieldRule(Predicate<Field> matcher, Function<Field, ExcelValueConverter> factory) {
+            this.matcher = matcher;
+            this.factory = factory;
+        }
+    }
+}
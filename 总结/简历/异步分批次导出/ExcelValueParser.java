@@ -0,0 +1,17 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+/**
+ * Excel单元格值解析器，将导入文件中的单元格文本解析为字段值
+ */
+@FunctionalInterface
+public interface ExcelValueParser {
+
+    /**
+     * 解析单元格文本
+     *
+     * @param text 单元格文本，已去除首尾空白，不为空
+     * @return 字段值
+     * @throws RuntimeException 文本格式不正确
+     */
+    Object parse(String text);
+}
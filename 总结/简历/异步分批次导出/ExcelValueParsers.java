@@ -0,0 +1,131 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+import com.oppo.corehrpt.basic.export.annotation.ExcelColumn;
+import com.oppo.corehrpt.basic.util.DateUtil;
+import org.apache.commons.lang3.StringUtils;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Excel单元格值解析器注册表，与 {@link ExcelValueConverters} 相对
+ * <p>
+ * 按字段类型在模型首次导入时为每列解析一个解析器，日期格式取 @ExcelColumn.dateTimeFormat，与导出一致。
+ * 业务可通过 {@link #register(Class, Function)} 扩展自定义类型
+ * </p>
+ */
+public final class ExcelValueParsers {
+
+    /** LocalDate 默认格式 */
+    private static final String PATTERN_LOCAL_DATE = "yyyy-MM-dd";
+
+    /** 类型 -> 解析器工厂 */
+    private static final Map<Class<?>, Function<Field, ExcelValueParser>> FACTORIES = new ConcurrentHashMap<>();
+
+    /** 格式串 -> 线程安全的日期格式化器 */
+    private static final Map<String, DateTimeFormatter> FORMATTERS = new ConcurrentHashMap<>();
+
+    static {
+        register(String.class, field -> text -> text);
+        register(Integer.class, field -> Integer::valueOf);
+        register(int.class, field -> Integer::valueOf);
+        register(Long.class, field -> Long::valueOf);
+        register(long.class, field -> Long::valueOf);
+        register(Double.class, field -> Double::valueOf);
+        register(double.class, field -> Double::valueOf);
+        register(BigDecimal.class, field -> BigDecimal::new);
+        register(Boolean.class, field -> ExcelValueParsers::parseBoolean);
+        register(boolean.class, field -> ExcelValueParsers::parseBoolean);
+        register(LocalDateTime.class, field -> {
+            DateTimeFormatter formatter = getFormatter(getPattern(field, DateUtil.PATTERN_STANDARD10H));
+            return text -> LocalDateTime.parse(text, formatter);
+        });
+        register(LocalDate.class, field -> {
+            DateTimeFormatter formatter = getFormatter(getPattern(field, PATTERN_LOCAL_DATE));
+            return text -> LocalDate.parse(text, formatter);
+        });
+        register(Date.class, field -> {
+            String pattern = getPattern(field, DateUtil.PATTERN_STANDARD10H);
+            DateTimeFormatter formatter = getFormatter(pattern);
+            // 未配置格式时，单元格只填 yyyy-MM-dd 也可导入
+            DateTimeFormatter fallback = pattern.equals(DateUtil.PATTERN_STANDARD10H) ? getFormatter(PATTERN_LOCAL_DATE) : null;
+            return text -> {
+                TemporalAccessor parsed;
+                try {
+                    // 格式只含日期（如 yyyy/MM/dd、yyyyMMdd）时按当天零点
+                    parsed = formatter.parseBest(text, LocalDateTime::from, LocalDate::from);
+                } catch (DateTimeParseException e) {
+                    if (fallback == null) {
+                        throw e;
+                    }
+                    parsed = LocalDate.parse(text, fallback);
+                }
+                LocalDateTime dateTime = parsed instanceof LocalDate ? ((LocalDate) parsed).atStartOfDay() : (LocalDateTime) parsed;
+                return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+            };
+        });
+    }
+
+    private ExcelValueParsers() {
+    }
+
+    /**
+     * 注册类型解析器工厂，需在模型首次导入前注册
+     *
+     * @param type    字段类型
+     * @param factory 解析器工厂，入参为字段，可读取 @ExcelColumn 配置
+     */
+    public static void register(Class<?> type, Function<Field, ExcelValueParser> factory) {
+        FACTORIES.put(type, factory);
+    }
+
+    /**
+     * 解析字段的解析器
+     *
+     * @param field 字段
+     * @return 解析器，枚举按名称解析
+     * @throws IllegalStateException 字段类型不支持导入
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static ExcelValueParser resolve(Field field) {
+        Function<Field, ExcelValueParser> factory = FACTORIES.get(field.getType());
+        if (factory != null) {
+            return factory.apply(field);
+        }
+        if (field.getType().isEnum()) {
+            Class<? extends Enum> enumType = (Class<? extends Enum>) field.getType();
+            return text -> Enum.valueOf(enumType, text);
+        }
+        throw new IllegalStateException("Unsupported import field type " + field.getType().getName() + " of " + field.getName());
+    }
+
+    private static Boolean parseBoolean(String text) {
+        if ("true".equalsIgnoreCase(text) || "1".equals(text) || "是".equals(text) || "Y".equalsIgnoreCase(text)) {
+            return Boolean.TRUE;
+        }
+        if ("false".equalsIgnoreCase(text) || "0".equals(text) || "否".equals(text) || "N".equalsIgnoreCase(text)) {
+            return Boolean.FALSE;
+        }
+        throw new IllegalArgumentException("Invalid boolean value: " + text);
+    }
+
+    private static String getPattern(Field field, String defaultPattern) {
+        ExcelColumn excelColumn = field.getAnnotation(ExcelColumn.class);
+        String pattern = excelColumn == null ? null : excelColumn.dateTimeFormat();
+        return StringUtils.isBlank(pattern) ? defaultPattern : pattern;
+    }
+
+    private static DateTimeFormatter getFormatter(String pattern) {
+        return FORMATTERS.computeIfAbsent(pattern, DateTimeFormatter::ofPattern);
+    }
+}
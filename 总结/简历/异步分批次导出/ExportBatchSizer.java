@@ -0,0 +1,125 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+import com.oppo.corehrpt.basic.export.entity.ExportOptions;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 自适应分页条数
+ * <p>
+ * 从配置的分页条数开始，每页查询后按实测的查询耗时、估算的单行字节数和剩余堆内存调整下一页条数：
+ * 整页返回且耗时低于目标一半时翻倍，耗时超过目标两倍时减半；单页估算内存超过剩余堆内存的 pageHeapRatio
+ * 或全局导出内存预算的剩余部分时继续减半。
+ * 按2倍调整，OFFSET分页在偏移量对齐时即可切换条数；结果限制在 [minPageSize, maxPageSize]
+ * </p>
+ */
+public class ExportBatchSizer {
+
+    /** 单行字节数滑动平均的新样本权重 */
+    private static final double ROW_BYTES_WEIGHT = 0.3;
+
+    private final int minPageSize;
+
+    private final int maxPageSize;
+
+    private final long targetPageMillis;
+
+    private final double pageHeapRatio;
+
+    /** 本任务持有的内存预算 */
+    private final ExportMemoryLease memory;
+
+    /** 估算的单行字节数，0表示尚无样本 */
+    private double rowBytes;
+
+    /**
+     * @param options 导出选项，取分页条数上下限、目标耗时和内存占比
+     * @param memory  本任务持有的内存预算
+     */
+    public ExportBatchSizer(ExportOptions options, ExportMemoryLease memory) {
+        this.minPageSize = Math.max(1, options.getMinPageSize());
+        this.maxPageSize = Math.max(minPageSize, options.getMaxPageSize());
+        this.targetPageMillis = Math.max(1, options.getTargetPageMillis());
+        this.pageHeapRatio = options.getPageHeapRatio();
+        this.memory = memory;
+    }
+
+    /**
+     * 初始分页条数，限制在上下限内
+     *
+     * @param pageSize 配置的分页条数
+     * @return 初始分页条数
+     */
+    public int initialPageSize(int pageSize) {
+        return clamp(pageSize);
+    }
+
+    /**
+     * 根据上一页的查询结果计算下一页条数
+     *
+     * @param pageSize   上一页的分页条数
+     * @param rows       上一页行数
+     * @param queryNanos 上一页查询耗时（纳秒）
+     * @param dataList   上一页转换后的数据，用于估算单行字节数
+     * @return 下一页条数
+     */
+    public int next(int pageSize, int rows, long queryNanos, List<List<Object>> dataList) {
+        if (!dataList.isEmpty()) {
+            long sample = estimateRowBytes(dataList.get(0));
+            rowBytes = rowBytes == 0 ? sample : rowBytes * (1 - ROW_BYTES_WEIGHT) + sample * ROW_BYTES_WEIGHT;
+        }
+        long millis = TimeUnit.NANOSECONDS.toMillis(queryNanos);
+        int size = pageSize;
+        if (rows >= pageSize && millis < targetPageMillis / 2) {
+            // 往返耗时占主导，加大分页
+            size = pageSize * 2;
+        } else if (millis > targetPageMillis * 2) {
+            size = pageSize / 2;
+        }
+        // 单页内存不超过剩余堆内存的固定比例，也不超过全局导出内存预算的剩余部分
+        if (rowBytes > 0) {
+            long maxPageBytes = Math.min((long) (heapHeadroom() * pageHeapRatio), memory.available());
+            long maxRowsByHeap = (long) (maxPageBytes / rowBytes);
+            while (size > maxRowsByHeap && size / 2 >= minPageSize) {
+                size /= 2;
+            }
+        }
+        return clamp(size);
+    }
+
+    /**
+     * 估算一行数据的堆内存占用，实体对象和转换后的行数据同时在内存，按2倍计算
+     *
+     * @param row 转换后的行数据
+     * @return 字节数
+     */
+    public static long estimateRowBytes(List<Object> row) {
+        // ArrayList 对象头 + 数组
+        long bytes = 40 + 4L * row.size();
+        for (Object cell : row) {
+            if (cell instanceof String) {
+                bytes += 40 + 2L * ((String) cell).length();
+            } else if (cell instanceof Number) {
+                bytes += 24;
+            } else {
+                bytes += 32;
+            }
+        }
+        return bytes * 2;
+    }
+
+    /**
+     * 剩余可用堆内存
+     *
+     * @return 字节数
+     */
+    public static long heapHeadroom() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+    }
+
+    private int clamp(int size) {
+        return Math.max(minPageSize, Math.min(maxPageSize, size));
+    }
+}
@@ -0,0 +1,13 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+import com.oppo.gcommon.starter.base.exception.SimpleException;
+
+/**
+ * 导出任务被取消（手动取消、超时或超出最大行数）
+ */
+public class ExportCancelledException extends SimpleException {
+
+    public ExportCancelledException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,67 @@
+package com.oppo.corehrpt.basic.export.entity;
+
+import lombok.Data;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 导出断点信息，定期保存到临时目录，节点重启后据此继续导出
+ */
+@Data
+public class ExportCheckpoint {
+
+    /** 导出记录ID */
+    private Long exportRecordId;
+
+    /** 任务类型 */
+    private String taskType;
+
+    /** 导出文件名 */
+    private String fileName;
+
+    /** 查询条件JSON */
+    private String queryJson;
+
+    /** 要排除的字段名列表 */
+    private List<String> excludeFieldList;
+
+    /** 导出选项 */
+    private ExportOptions options;
+
+    /** 分页条数 */
+    private int pageSize;
+
+    /** 已查询的最后一条记录的key */
+    private String lastKey;
+
+    /** 是否已查询完所有数据，只剩写入文件和上传 */
+    private boolean queryFinished;
+
+    /** 已落盘的行数 */
+    private long rowCount;
+
+    /** 已落盘的页数 */
+    private int pageCount;
+
+    /** 中间数据文件路径 */
+    private String spoolPath;
+
+    /** 中间数据文件的有效长度，恢复时截断之后未保存断点的数据 */
+    private long spoolLength;
+
+    /** 导出发起人账号 */
+    private String userAccount;
+
+    /** 导出发起人姓名 */
+    private String userName;
+
+    /** 语言标识 */
+    private String languageTag;
+
+    /** 是否为集群队列任务，节点重启后不在本地恢复，由队列重新认领 */
+    private boolean queued;
+
+    /** 断点保存时间 */
+    private Date updateTime;
+}
@@ -0,0 +1,130 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oppo.corehrpt.basic.export.entity.ExportCheckpoint;
+import com.oppo.gcommon.starter.base.exception.SimpleException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 导出断点存储，每个导出记录一个JSON文件，先写临时文件再原子替换，避免宕机时断点文件损坏
+ */
+@Slf4j
+public class ExportCheckpointStore {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private static final String CHECKPOINT_SUFFIX = ".checkpoint.json";
+
+    /** 断点目录 */
+    private final File dir;
+
+    public ExportCheckpointStore(String dirPath) {
+        this.dir = new File(dirPath);
+    }
+
+    /**
+     * 断点目录，中间数据文件也存放在此目录
+     *
+     * @return 断点目录
+     */
+    public File getDir() {
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new SimpleException("Create checkpoint dir failed.");
+        }
+        return dir;
+    }
+
+    /**
+     * 保存断点
+     *
+     * @param checkpoint 断点信息
+     */
+    public void save(ExportCheckpoint checkpoint) {
+        checkpoint.setUpdateTime(new Date());
+        File target = new File(getDir(), checkpoint.getExportRecordId() + CHECKPOINT_SUFFIX);
+        File tmp = new File(getDir(), checkpoint.getExportRecordId() + CHECKPOINT_SUFFIX + ".tmp");
+        try {
+            OBJECT_MAPPER.writeValue(tmp, checkpoint);
+            Files.move(tmp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new SimpleException("Save export checkpoint failed.", e);
+        }
+    }
+
+    /**
+     * 加载本节点的全部断点
+     *
+     * @return 断点列表，无法解析的断点文件会被跳过
+     */
+    public List<ExportCheckpoint> loadAll() {
+        List<ExportCheckpoint> checkpoints = new ArrayList<>();
+        File[] files = getDir().listFiles((d, name) -> name.endsWith(CHECKPOINT_SUFFIX));
+        if (files == null) {
+            return checkpoints;
+        }
+        for (File file : files) {
+            try {
+                checkpoints.add(OBJECT_MAPPER.readValue(file, ExportCheckpoint.class));
+            } catch (IOException e) {
+                log.error("Read export checkpoint error, file:{}", file.getName(), e);
+            }
+        }
+        return checkpoints;
+    }
+
+    /**
+     * 删除断点及其中间数据文件
+     *
+     * @param checkpoint 断点信息
+     */
+    public void delete(ExportCheckpoint checkpoint) {
+        try {
+            Files.deleteIfExists(new File(getDir(), checkpoint.getExportRecordId() + CHECKPOINT_SUFFIX).toPath());
+            if (checkpoint.getSpoolPath() != null) {
+                Files.deleteIfExists(new File(checkpoint.getSpoolPath()).toPath());
+            }
+        } catch (IOException e) {
+            log.error("Delete export checkpoint error, exportRecordId:{}", checkpoint.getExportRecordId(), e);
+        }
+    }
+
+    /**
+     * 对象转JSON
+     *
+     * @param value 对象
+     * @return JSON字符串
+     */
+    public static String toJson(Object value) {
+        try {
+            return OBJECT_MAPPER.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new SimpleException("Serialize export query failed.", e);
+        }
+    }
+
+    /**
+     * JSON转对象
+     *
+     * @param json  JSON字符串
+     * @param clazz 对象类型
+     * @return 对象
+     */
+    public static <Q> Q fromJson(String json, Class<Q> clazz) {
+        try {
+            return OBJECT_MAPPER.readValue(json, clazz);
+        } catch (IOException e) {
+            throw new SimpleException("Deserialize export query failed.", e);
+        }
+    }
+}
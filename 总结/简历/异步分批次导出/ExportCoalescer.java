@@ -0,0 +1,147 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 重复导出请求合并
+ * <p>
+ * 相同指纹（任务类型、模型类、查询条件、字段过滤、格式、语言、数据权限用户）的导出请求：
+ * 进行中时挂到同一个导出任务上，完成后在有效期内直接复用已上传的文件ID；每个请求仍各自有导出记录
+ * </p>
+ */
+public final class ExportCoalescer {
+
+    /** 没有可序列化属性的查询条件会序列化成 {}，不同条件的指纹相同，保留 FAIL_ON_EMPTY_BEANS 使其不合并 */
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+    /** 进行中的导出任务，key: 指纹 */
+    private static final Map<String, CompletableFuture<ExportResult>> IN_FLIGHT = new ConcurrentHashMap<>();
+
+    /** 已完成的导出结果，key: 指纹 */
+    private static final Map<String, CompletedResult> COMPLETED = new ConcurrentHashMap<>();
+
+    private ExportCoalescer() {
+    }
+
+    /**
+     * 计算导出请求指纹
+     *
+     * @param taskType         任务类型
+     * @param clazz            模型类
+     * @param query            查询条件，序列化后参与指纹计算，须有getter
+     * @param excludeFieldList 要排除的字段名列表
+     * @param format           导出格式
+     * @param locale           语言
+     * @param userId           数据权限用户
+     * @return 指纹，查询条件无法序列化时返回null（不合并）
+     */
+    public static String fingerprint(String taskType, Class<?> clazz, Object query, List<String> excludeFieldList,
+                                     Object format, Locale locale, String userId) {
+        String queryJson;
+        try {
+            queryJson = OBJECT_MAPPER.writeValueAsString(query);
+        } catch (JsonProcessingException e) {
+            // 查询条件无法序列化（如没有getter）时不合并
+            return null;
+        }
+        String raw = String.join("|", taskType, clazz.getName(), queryJson, String.valueOf(excludeFieldList),
+                String.valueOf(format), locale.toLanguageTag(), userId);
+        return DigestUtils.sha256Hex(raw);
+    }
+
+    /**
+     * 获取有效期内已完成的导出结果
+     *
+     * @param fingerprint 指纹
+     * @return 已上传的文件ID，不存在或已过期返回null
+     */
+    public static String getCompleted(String fingerprint) {
+        CompletedResult result = COMPLETED.get(fingerprint);
+        if (result == null) {
+            return null;
+        }
+        if (result.getExpireAt() < System.currentTimeMillis()) {
+            COMPLETED.remove(fingerprint, result);
+            return null;
+        }
+        return result.getFileId();
+    }
+
+    /**
+     * 登记进行中的导出任务
+     *
+     * @param fingerprint 指纹
+     * @param future      当前请求的导出任务
+     * @return 已存在的进行中任务；返回 future 本身表示当前请求需要执行导出
+     */
+    public static CompletableFuture<ExportResult> attach(String fingerprint, CompletableFuture<ExportResult> future) {
+        CompletableFuture<ExportResult> running = IN_FLIGHT.putIfAbsent(fingerprint, future);
+        return running == null ? future : running;
+    }
+
+    /**
+     * 导出任务完成，移出进行中列表；成功时在有效期内保留结果供复用
+     *
+     * @param fingerprint  指纹
+     * @param result       导出结果
+     * @param reuseSeconds 结果复用有效期（秒），0表示不复用
+     */
+    public static void complete(String fingerprint, ExportResult result, int reuseSeconds) {
+        long now = System.currentTimeMillis();
+        if (result.getFileId() != null && reuseSeconds > 0) {
+            COMPLETED.put(fingerprint, new CompletedResult(result.getFileId(), now + reuseSeconds * 1000L));
+        }
+        CompletableFuture<ExportResult> future = IN_FLIGHT.remove(fingerprint);
+        if (future != null) {
+            future.complete(result);
+        }
+        // 清理过期结果
+        Iterator<CompletedResult> iterator = COMPLETED.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getExpireAt() < now) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * 导出结果
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class ExportResult {
+
+        /** 上传成功后的文件ID，null表示失败 */
+        private final String fileId;
+
+        /** 错误信息，成功时为"success" */
+        private final String errorMsg;
+
+        /** 任务已被取消，挂在同一任务上的请求同样标记为已取消 */
+        private final boolean cancelled;
+
+        public ExportResult(String fileId, String errorMsg) {
+            this(fileId, errorMsg, false);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class CompletedResult {
+        private final String fileId;
+        private final long expireAt;
+    }
+}
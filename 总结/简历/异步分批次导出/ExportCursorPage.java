@@ -0,0 +1,36 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 游标分页结果
+ *
+ * @param <T> 数据模型类型
+ * @param <K> 游标key类型
+ */
+@Getter
+@AllArgsConstructor
+public class ExportCursorPage<T, K> {
+
+    /** 本页数据 */
+    private final List<T> rows;
+
+    /** 下一页的游标key，null表示没有更多数据 */
+    private final K nextKey;
+
+    /**
+     * 根据本页最后一条记录生成游标key
+     *
+     * @param rows         本页数据
+     * @param keyExtractor key提取函数，如 {@code UserExportVO::getId}
+     * @return 游标分页结果
+     */
+    public static <T, K> ExportCursorPage<T, K> of(List<T> rows, Function<T, K> keyExtractor) {
+        K nextKey = rows == null || rows.isEmpty() ? null : keyExtractor.apply(rows.get(rows.size() - 1));
+        return new ExportCursorPage<>(rows, nextKey);
+    }
+}
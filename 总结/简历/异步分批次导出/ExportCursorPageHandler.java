@@ -0,0 +1,36 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+/**
+ * 游标（Keyset）分页查询处理器
+ * <p>
+ * 与 ExportHelper.ExportPageHandler 的 OFFSET 分页不同，每页根据上一页最后一条记录的key查询，
+ * 例如 {@code WHERE id > #{lastKey} ORDER BY id LIMIT #{pageSize}}，深分页时查询耗时保持稳定
+ * </p>
+ *
+ * @param <T> 数据模型类型
+ * @param <K> 游标key类型，如主键ID
+ */
+@FunctionalInterface
+public interface ExportCursorPageHandler<T, K> {
+
+    /**
+     * 查询下一页
+     *
+     * @param lastKey  上一页最后一条记录的key，第一页为null
+     * @param pageSize 分页条数
+     * @return 分页数据及下一页的游标key
+     */
+    ExportCursorPage<T, K> page(K lastKey, int pageSize);
+
+    /**
+     * 按导出列投影查询下一页，处理器可覆盖此方法只查询导出的列，默认查询全部列
+     *
+     * @param lastKey    上一页最后一条记录的key，第一页为null
+     * @param pageSize   分页条数
+     * @param projection 导出列投影
+     * @return 分页数据及下一页的游标key
+     */
+    default ExportCursorPage<T, K> page(K lastKey, int pageSize, ExportProjection projection) {
+        return page(lastKey, pageSize);
+    }
+}
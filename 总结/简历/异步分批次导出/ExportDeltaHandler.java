@@ -0,0 +1,58 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+/**
+ * 增量导出处理器
+ * <p>
+ * 水位为数据变化的单调递增标识（如 max(update_date)、max(id)）的字符串形式，按用户、任务类型、查询条件保存在导出成功的导出记录上。
+ * 每次导出前先取当前水位作为上界，只查询 (上次水位, 当前水位] 内变化的数据，例如
+ * {@code WHERE update_date > #{fromWatermark} AND update_date <= #{toWatermark} AND id > #{lastKey} ORDER BY id LIMIT #{pageSize}}，
+ * 导出期间新变化的数据留到下次导出
+ * </p>
+ * <p>
+ * 保证：水位列的值在行提交后不会小于已返回的上界时，每次变化至少导出一次（同一行多次变化只导出最新值）。
+ * update_date 在事务开始时取值、提交可能晚于其他事务，须按 safetyLagSeconds 后退上界；
+ * 提交时才分配的单调值（如变更日志序号）不需要后退。删除不会被导出，须使用逻辑删除标记
+ * </p>
+ *
+ * @param <T> 数据模型类型
+ * @param <K> 游标key类型，如主键ID
+ */
+public interface ExportDeltaHandler<T, K> {
+
+    /**
+     * 当前水位，作为本次导出的上界，在查询第一页之前调用一次
+     * <p>
+     * 时间类水位返回 min(max(update_date), 当前时间 - safetyLagSeconds)，避免仍未提交的事务写入更早的时间；
+     * 提交时分配的单调水位可忽略延迟
+     * </p>
+     *
+     * @param safetyLagSeconds 水位安全延迟（秒），取 options.watermarkLagSeconds
+     * @return 当前水位，没有数据时返回null
+     */
+    String currentWatermark(long safetyLagSeconds);
+
+    /**
+     * 查询水位区间内变化数据的下一页
+     *
+     * @param fromWatermark 上次导出的水位（不含），首次导出为null，须导出上界之前的全部数据
+     * @param toWatermark   本次导出的水位（含）
+     * @param lastKey       上一页最后一条记录的key，第一页为null
+     * @param pageSize      分页条数
+     * @return 分页数据及下一页的游标key
+     */
+    ExportCursorPage<T, K> page(String fromWatermark, String toWatermark, K lastKey, int pageSize);
+
+    /**
+     * 按导出列投影查询水位区间内变化数据的下一页，处理器可覆盖此方法只查询导出的列，默认查询全部列
+     *
+     * @param fromWatermark 上次导出的水位（不含），首次导出为null
+     * @param toWatermark   本次导出的水位（含）
+     * @param lastKey       上一页最后一条记录的key，第一页为null
+     * @param pageSize      分页条数
+     * @param projection    导出列投影
+     * @return 分页数据及下一页的游标key
+     */
+    default ExportCursorPage<T, K> page(String fromWatermark, String toWatermark, K lastKey, int pageSize, ExportProjection projection) {
+        return page(fromWatermark, toWatermark, lastKey, pageSize);
+    }
+}
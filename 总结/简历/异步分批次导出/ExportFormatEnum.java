@@ -0,0 +1,24 @@
+package com.oppo.corehrpt.basic.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 导出文件格式
+ */
+@Getter
+@AllArgsConstructor
+public enum ExportFormatEnum {
+
+    /** Excel，带表头样式，单Sheet最多100万行 */
+    XLSX(".xlsx"),
+
+    /** CSV，无样式、无行数限制 */
+    CSV(".csv"),
+
+    /** gzip压缩的CSV */
+    CSV_GZIP(".csv.gz");
+
+    /** 文件后缀 */
+    private final String suffix;
+}
@@ -6,13 +6,20 @@ import com.alibaba.excel.ExcelWriter;
 import com.alibaba.excel.support.ExcelTypeEnum;
 import com.alibaba.excel.write.builder.ExcelWriterBuilder;
 import com.alibaba.excel.write.metadata.WriteSheet;
+import com.alibaba.excel.write.metadata.WriteTable;
 import com.alibaba.excel.write.style.row.SimpleRowHeightStyleStrategy;
+import com.oppo.corehrpt.basic.enums.ExportFormatEnum;
+import com.oppo.corehrpt.basic.enums.ExportPartitionOutputEnum;
+import com.oppo.corehrpt.basic.enums.ExportStatusEnum;
 import com.oppo.corehrpt.basic.enums.LanguageEnum;
 import com.oppo.corehrpt.basic.export.annotation.ExcelColumn;
 import com.oppo.corehrpt.basic.export.annotation.ExcelModel;
 import com.oppo.corehrpt.basic.export.entity.ComExportRecordVO;
 import com.oppo.corehrpt.basic.export.entity.ExcelModelEntity;
+import com.oppo.corehrpt.basic.export.entity.ExportCheckpoint;
+import com.oppo.corehrpt.basic.export.entity.ExportOptions;
 import com.oppo.corehrpt.basic.export.strategy.ExcelCellStyleStrategy;
+import com.oppo.corehrpt.basic.export.strategy.HiddenSheetDropDownWriteHandler;
 import com.oppo.corehrpt.basic.export.strategy.WidthStyleStrategy;
 import com.oppo.corehrpt.basic.pojo.query.page.PageQuery;
 import com.oppo.corehrpt.basic.pojo.vo.GBassFilePO;
@@ -24,23 +31,43 @@ import com.oppo.gcommon.starter.base.context.UserContextHolder;
 import com.oppo.gcommon.starter.base.exception.SimpleException;
 import com.oppo.gcommon.starter.mybatis.pojo.vo.PageResultVO;
 import com.oppo.gcommon.starter.web.vo.ResultVo;
-import jodd.io.FileUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.apache.commons.io.output.CountingOutputStream;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.util.WorkbookUtil;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.util.UriUtils;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.reflect.Field;
-import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 /**
  * Excel导出助手工具类，提供异步Excel导出功能，支持百万级数据导出
@@ -55,8 +82,20 @@ public class ExportHelper2 {
     /** 线程池执行器，用于异步任务执行 */
     private static ThreadPoolTaskExecutor threadPoolTaskExecutor;
 
-    /** 临时文件存储路径 */
-    private final static String TEMP_DIR_PATH = "/home/corehr/DOCs/tmp";
+    /** 导出任务调度器，按用户、任务类型限制并发 */
+    private static ExportScheduler exportScheduler;
+
+    /** 导出内存预算，所有导出任务已查询、未写出的分页共用 */
+    private static ExportMemoryBudget exportMemoryBudget;
+
+    /** 运行中导出任务登记表，用于取消和执行限制 */
+    private static ExportJobRegistry exportJobRegistry;
+
+    /** 导出临时文件存储，按配额创建临时文件，上传或失败后删除 */
+    private static ExportTempStorage exportTempStorage;
+
+    /** 导出进度写回器，合并进度更新，每个任务每个间隔最多更新一次导出记录 */
+    private static ExportProgressReporter exportProgressReporter;
 
     /** 默认分页查询条数 */
     private final static int DEFAULT_PAGE_SIZE = 500;
@@ -64,6 +103,15 @@ public class ExportHelper2 {
     /** Excel单个Sheet页最大行数限制 */
     private final static int SHEET_MAX = 1000000;
 
+    /** 流式上传管道缓冲区大小 */
+    private final static int STREAM_BUFFER_SIZE = 1024 * 1024;
+
+    /** 分区导出打包文件后缀 */
+    private final static String ZIP_SUFFIX = ".zip";
+
+    /** Excel Sheet名最大长度 */
+    private final static int SHEET_NAME_MAX = 31;
+
     /**
      * 异步导出Excel（基础版本）
      *
@@ -97,13 +145,481 @@ public class ExportHelper2 {
      * @param secondSheetList  第二个Sheet页的数据，可为null
      */
     public static <T> void asyncExportExcel(Class<T> clazz, ExportHelper.ExportPageHandler<T> handler, PageQuery query, List<String> excludeFieldList, List<?> secondSheetList) {
-        // 获取Excel模型信息
+        asyncExportExcel(clazz, handler, query, excludeFieldList, secondSheetList, new ExportOptions());
+    }
+
+    /**
+     * 异步导出Excel（可配置版本）
+     *
+     * @param clazz            数据模型类，必须包含@ExcelModel和@ExcelColumn注解
+     * @param handler          分页查询处理器，用于获取主要数据
+     * @param query            分页查询条件，包含分页参数
+     * @param excludeFieldList 要排除的字段名列表，可为null
+     * @param secondSheetList  第二个Sheet页的数据，可为null；数据量大时改用 options.addSheet 分页写入
+     * @param options          导出选项，如预取页数、附加Sheet页
+     */
+    public static <T> void asyncExportExcel(Class<T> clazz, ExportHelper.ExportPageHandler<T> handler, PageQuery query, List<String> excludeFieldList, List<?> secondSheetList, ExportOptions options) {
+        ExcelModelEntity entity = extractExcelModel(clazz, excludeFieldList);
+        entity.setSecondSheetList(secondSheetList);
+        entity.setFileName(changeFileSuffix(entity.getFileName(), options.getFormat().getSuffix()));
+        // 第二个Sheet页数据无法参与指纹计算，不合并
+        String fingerprint = CollectionUtils.isEmpty(secondSheetList) ? getFingerprint(entity, clazz, handler, query, excludeFieldList, options, false) : null;
+        submitExport(entity, fingerprint, options, ctx -> exportAndUploadExcel(ctx, getOffsetPageFetcher(ctx, handler, query)));
+    }
+
+    /**
+     * 异步导出Excel（游标分页版本），适用于百万级深分页场景
+     *
+     * @param clazz            数据模型类，必须包含@ExcelModel和@ExcelColumn注解
+     * @param handler          游标分页查询处理器，根据上一页最后一条记录的key查询下一页
+     * @param query            分页查询条件，取exportPageSize作为分页条数
+     * @param excludeFieldList 要排除的字段名列表，可为null
+     * @param options          导出选项，如预取页数
+     */
+    public static <T, K> void asyncExportExcel(Class<T> clazz, ExportCursorPageHandler<T, K> handler, PageQuery query, List<String> excludeFieldList, ExportOptions options) {
+        ExcelModelEntity entity = extractExcelModel(clazz, excludeFieldList);
+        entity.setFileName(changeFileSuffix(entity.getFileName(), options.getFormat().getSuffix()));
+        // 过滤条件在处理器中，只按调用方指定的合并key合并
+        String fingerprint = getFingerprint(entity, clazz, handler, query, excludeFieldList, options, true);
+        ExportProjection projection = ExportProjection.of(clazz, excludeFieldList, null);
+        submitExport(entity, fingerprint, options, ctx -> exportAndUploadExcel(ctx, getCursorPageFetcher(ctx, handler, query, projection)));
+    }
+
+    /**
+     * 异步导出Excel（增量版本）
+     * <p>
+     * 按发起人、任务类型、查询条件（及 options.watermarkKey）取最近一次成功的增量导出的水位，与处理器返回的当前水位组成区间，
+     * 只导出区间内变化的数据；导出记录保存本次的水位区间，成功后作为下次导出的起点。首次导出或 options.resetWatermark 时导出当前水位之前的全部数据。
+     * 不漏数据的前提见 {@link ExportDeltaHandler}
+     * </p>
+     *
+     * @param clazz            数据模型类，必须包含@ExcelModel和@ExcelColumn注解
+     * @param handler          增量导出处理器
+     * @param query            分页查询条件，取exportPageSize作为分页条数
+     * @param excludeFieldList 要排除的字段名列表，可为null
+     * @param options          导出选项，不合并重复请求
+     */
+    public static <T, K> void asyncExportExcel(Class<T> clazz, ExportDeltaHandler<T, K> handler, PageQuery query, List<String> excludeFieldList, ExportOptions options) {
+        ExcelModelEntity entity = extractExcelModel(clazz, excludeFieldList);
+        entity.setFileName(changeFileSuffix(entity.getFileName(), options.getFormat().getSuffix()));
+        ExportProjection projection = ExportProjection.of(clazz, excludeFieldList, null);
+        // 不同过滤条件的增量导出各自推进水位
+        String watermarkKey = DigestUtils.sha256Hex(ExportCheckpointStore.toJson(query) + "|" + StringUtils.defaultString(options.getWatermarkKey()));
+        // 结果取决于上次导出的水位，不合并
+        submitExport(entity, null, options, ctx -> {
+            String watermarkFrom = options.isResetWatermark() ? null
+                    : baseCommonService2.getLastExportWatermark(UserContextHolder.getUserAccount(), ctx.getEntity().getTaskType(), watermarkKey);
+            String watermarkTo = handler.currentWatermark(options.getWatermarkLagSeconds());
+            ctx.setWatermarkRange(watermarkKey, watermarkFrom, watermarkTo);
+            log.info("Delta export, exportRecordId:{}, watermark:({}, {}]", ctx.getExportRecordId(), watermarkFrom, watermarkTo);
+            ExportCursorPageHandler<T, K> deltaHandler = new ExportCursorPageHandler<T, K>() {
+                @Override
+                public ExportCursorPage<T, K> page(K lastKey, int pageSize) {
+                    return handler.page(watermarkFrom, watermarkTo, lastKey, pageSize);
+                }
+
+                @Override
+                public ExportCursorPage<T, K> page(K lastKey, int pageSize, ExportProjection projection) {
+                    return handler.page(watermarkFrom, watermarkTo, lastKey, pageSize, projection);
+                }
+            };
+            return exportAndUploadExcel(ctx, getCursorPageFetcher(ctx, deltaHandler, query, projection));
+        });
+    }
+
+    /**
+     * 异步导出Excel（列投影版本）
+     * <p>
+     * 与OFFSET分页版本相同，处理器额外收到按排除字段解析出的导出列，只查询、映射这些列，
+     * 宽表中未导出的字段（如大文本）不再查询和传输
+     * </p>
+     *
+     * @param clazz            数据模型类，必须包含@ExcelModel和@ExcelColumn注解
+     * @param handler          支持列投影的分页查询处理器
+     * @param query            分页查询条件，包含分页参数
+     * @param excludeFieldList 要排除的字段名列表，可为null
+     * @param options          导出选项，如预取页数
+     */
+    public static <T> void asyncExportExcel(Class<T> clazz, ExportProjectionPageHandler<T> handler, PageQuery query, List<String> excludeFieldList, ExportOptions options) {
+        ExcelModelEntity entity = extractExcelModel(clazz, excludeFieldList);
+        entity.setFileName(changeFileSuffix(entity.getFileName(), options.getFormat().getSuffix()));
+        // 过滤条件在处理器中，只按调用方指定的合并key合并
+        String fingerprint = getFingerprint(entity, clazz, handler, query, excludeFieldList, options, true);
+        ExportProjection projection = ExportProjection.of(clazz, excludeFieldList, null);
+        submitExport(entity, fingerprint, options, ctx -> exportAndUploadExcel(ctx, getOffsetPageFetcher(ctx, () -> handler.page(projection), query)));
+    }
+
+    /**
+     * 异步导出Excel（分区并行版本）
+     * <p>
+     * 各分区在独立的工作线程中并行查询、转换，按 options.partitionOutput 输出为同一工作簿的多个Sheet页，
+     * 或每个分区一个XLSX文件打包成zip；整个任务对应一条导出记录
+     * </p>
+     *
+     * @param clazz            数据模型类，必须包含@ExcelModel和@ExcelColumn注解
+     * @param partitioner      数据分区器，负责拆分分区和分区内分页查询
+     * @param pageSize         分页条数，为null时取默认值
+     * @param excludeFieldList 要排除的字段名列表，可为null
+     * @param options          导出选项，如并行数、输出方式
+     */
+    public static <T, P> void asyncExportExcel(Class<T> clazz, ExportPartitioner<T, P> partitioner, Integer pageSize, List<String> excludeFieldList, ExportOptions options) {
+        if (options.getFormat() != ExportFormatEnum.XLSX) {
+            throw new SimpleException("Partition export only supports xlsx format.");
+        }
         ExcelModelEntity entity = extractExcelModel(clazz, excludeFieldList);
+        if (options.getPartitionOutput() == ExportPartitionOutputEnum.ZIP) {
+            if (!options.getExtraSheets().isEmpty()) {
+                throw new SimpleException("Extra sheets are not supported for zip partition output.");
+            }
+            entity.setFileName(changeFileSuffix(entity.getFileName(), ZIP_SUFFIX));
+        }
+        int size = pageSize == null ? DEFAULT_PAGE_SIZE : pageSize;
+        ExportProjection projection = ExportProjection.of(clazz, excludeFieldList, null);
+        submitExport(entity, null, options, ctx -> exportAndUploadPartitions(ctx, partitioner, size, projection));
+    }
+
+    /**
+     * 异步导出Excel（可续传版本）
+     * <p>
+     * 查询结果先追加到临时目录下的中间文件，每 options.checkpointPages 页保存一次断点（游标key、已写入行数、中间文件长度）。
+     * 节点重启后 ExportRecoveryRunner 按任务类型找回处理器，只查询断点之后的数据，查询完成后再编码成XLSX/CSV上传。
+     * options.distributed 为true时只登记任务，由集群内的 ExportQueueWorker 认领执行
+     * </p>
+     *
+     * @param clazz            数据模型类，必须包含@ExcelModel和@ExcelColumn注解
+     * @param handler          可续传导出处理器，须注册为Spring Bean，taskType与@ExcelModel一致
+     * @param query            查询条件，须可JSON序列化
+     * @param pageSize         分页条数，为null时取默认值
+     * @param excludeFieldList 要排除的字段名列表，可为null
+     * @param options          导出选项，如断点间隔、输出格式
+     */
+    public static <T, Q> void asyncExportExcel(Class<T> clazz, ResumableExportHandler<T, Q> handler, Q query, Integer pageSize, List<String> excludeFieldList, ExportOptions options) {
+        ExcelModelEntity entity = extractExcelModel(clazz, excludeFieldList);
+        if (!StringUtils.equals(entity.getTaskType(), handler.taskType())) {
+            throw new SimpleException("The task type of resumable handler does not match the model.");
+        }
+        if (!options.getExtraSheets().isEmpty()) {
+            // 附加Sheet页的处理器无法随断点恢复
+            throw new SimpleException("Extra sheets are not supported for resumable export.");
+        }
+        entity.setFileName(changeFileSuffix(entity.getFileName(), options.getFormat().getSuffix()));
+        String queryJson = ExportCheckpointStore.toJson(query);
+        int size = pageSize == null ? DEFAULT_PAGE_SIZE : pageSize;
+        if (options.isDistributed()) {
+            enqueueExport(entity, queryJson, size, excludeFieldList, options);
+            return;
+        }
+        submitExport(entity, null, options, ctx -> exportResumable(ctx, handler,
+                newCheckpoint(ctx.getExportRecordId(), ctx.getEntity(), ctx.getOptions(), queryJson, size, excludeFieldList)));
+    }
+
+    /**
+     * 在导出记录表中登记集群队列任务，导出记录为排队中，由工作节点认领执行
+     *
+     * @param entity           导出参数实体
+     * @param queryJson        查询条件JSON
+     * @param pageSize         分页条数
+     * @param excludeFieldList 要排除的字段名列表
+     * @param options          导出选项
+     */
+    private static void enqueueExport(ExcelModelEntity entity, String queryJson, int pageSize, List<String> excludeFieldList, ExportOptions options) {
+        LoginUserBean loginUserBean = UserContextHolder.get();
+        ResultVo<Long> rv = baseCommonService2.createExportRecord(loginUserBean.getUserName(), entity.getTaskType(), entity.getFileName(), entity.getFileName());
+        long exportRecordId = rv.getData();
+        ExportCheckpoint checkpoint = newCheckpoint(exportRecordId, entity, options, queryJson, pageSize, excludeFieldList);
+        checkpoint.setQueued(true);
+        baseCommonService2.enqueueExportJob(exportRecordId, ExportCheckpointStore.toJson(checkpoint));
+        log.info("Export enqueued, taskType:{}, exportRecordId:{}", entity.getTaskType(), exportRecordId);
+    }
+
+    /**
+     * 执行本节点认领的集群队列任务，沿用登记时的导出记录，从头开始查询
+     *
+     * @param checkpoint 登记时的初始断点
+     * @param handler    可续传导出处理器
+     * @param job        认领中的任务，租约被接管时停止导出
+     */
+    static <T, Q> void runQueuedExport(ExportCheckpoint checkpoint, ResumableExportHandler<T, Q> handler, ExportQueueWorker.ClaimedJob job) {
+        restoreUserContext(checkpoint);
+        // 中间文件写到执行节点的断点目录
+        checkpoint.setSpoolPath(getSpoolPath(checkpoint.getExportRecordId()));
+        ExcelModelEntity entity = extractExcelModel(handler.modelClass(), checkpoint.getExcludeFieldList());
+        entity.setFileName(checkpoint.getFileName());
+        scheduleExport(entity, checkpoint.getExportRecordId(), null, checkpoint.getOptions(), ctx -> {
+            job.attach(ctx.getHandle());
+            try {
+                return exportResumable(ctx, handler, checkpoint);
+            } finally {
+                job.finish();
+            }
+        });
+    }
+
+    /**
+     * 恢复本节点未完成的可续传导出，应用启动时调用
+     * <p>
+     * 只恢复本节点临时目录下有断点、且导出记录仍为排队或执行中的任务；其余断点直接清理
+     * </p>
+     *
+     * @param handlers 已注册的可续传导出处理器
+     */
+    public static void recoverExports(List<ResumableExportHandler<?, ?>> handlers) {
+        List<ExportCheckpoint> checkpoints = exportTempStorage.getCheckpointStore().loadAll();
+        if (checkpoints.isEmpty()) {
+            return;
+        }
+        Map<String, ResumableExportHandler<?, ?>> handlerMap = indexHandlers(handlers);
+        List<Long> idList = checkpoints.stream().map(ExportCheckpoint::getExportRecordId).collect(Collectors.toList());
+        Set<Long> unfinishedIds = new HashSet<>(baseCommonService2.listUnfinishedExportRecordIds(idList));
+        for (ExportCheckpoint checkpoint : checkpoints) {
+            // 集群队列任务的租约过期后由队列重新认领，本地恢复会与其他节点重复执行
+            if (checkpoint.isQueued() || !unfinishedIds.contains(checkpoint.getExportRecordId())) {
+                exportTempStorage.getCheckpointStore().delete(checkpoint);
+                continue;
+            }
+            ResumableExportHandler<?, ?> handler = handlerMap.get(checkpoint.getTaskType());
+            if (handler == null) {
+                log.warn("Resumable export handler not found, taskType:{}, exportRecordId:{}", checkpoint.getTaskType(), checkpoint.getExportRecordId());
+                restoreUserContext(checkpoint);
+                ComExportRecordVO recordVO = new ComExportRecordVO();
+                recordVO.setId(checkpoint.getExportRecordId());
+                recordVO.setEndTime(new Date());
+                recordVO.setStatus(ExportStatusEnum.FAILED.getCode());
+                recordVO.setErrorMsg("Resume failed, handler not found.");
+                baseCommonService2.updateExportRecord(recordVO);
+                exportTempStorage.getCheckpointStore().delete(checkpoint);
+                continue;
+            }
+            try {
+                resumeExport(checkpoint, handler);
+            } catch (Exception e) {
+                log.error("Resume export error, exportRecordId:{}", checkpoint.getExportRecordId(), e);
+            }
+        }
+    }
+
+    /**
+     * 按任务类型索引可续传导出处理器，同一任务类型注册了多个处理器时记录错误并使用第一个，不影响应用启动
+     *
+     * @param handlers 已注册的可续传导出处理器
+     * @return 任务类型 -> 处理器
+     */
+    static Map<String, ResumableExportHandler<?, ?>> indexHandlers(List<ResumableExportHandler<?, ?>> handlers) {
+        Map<String, ResumableExportHandler<?, ?>> handlerMap = new LinkedHashMap<>();
+        for (ResumableExportHandler<?, ?> handler : handlers) {
+            ResumableExportHandler<?, ?> existing = handlerMap.putIfAbsent(handler.taskType(), handler);
+            if (existing != null) {
+                log.error("Duplicate resumable export handler, taskType:{}, used:{}, ignored:{}", handler.taskType(),
+                        existing.getClass().getName(), handler.getClass().getName());
+            }
+        }
+        return handlerMap;
+    }
+
+    /**
+     * 按断点重新提交导出任务，沿用原导出记录
+     *
+     * @param checkpoint 断点信息
+     * @param handler    可续传导出处理器
+     */
+    private static <T, Q> void resumeExport(ExportCheckpoint checkpoint, ResumableExportHandler<T, Q> handler) {
+        restoreUserContext(checkpoint);
+        ExcelModelEntity entity = extractExcelModel(handler.modelClass(), checkpoint.getExcludeFieldList());
+        entity.setFileName(checkpoint.getFileName());
+        log.info("Resume export, exportRecordId:{}, rowCount:{}", checkpoint.getExportRecordId(), checkpoint.getRowCount());
+        scheduleExport(entity, checkpoint.getExportRecordId(), null, checkpoint.getOptions(), ctx -> exportResumable(ctx, handler, checkpoint));
+    }
+
+    /**
+     * 恢复发起人和语言，表头、文件名按原语言生成
+     *
+     * @param checkpoint 断点信息
+     */
+    private static void restoreUserContext(ExportCheckpoint checkpoint) {
+        Locale locale = Locale.forLanguageTag(checkpoint.getLanguageTag());
+        // 断点只保存账号和姓名，不保存令牌等会话信息
+        LoginUserBean loginUserBean = new LoginUserBean();
+        loginUserBean.setUserAccount(checkpoint.getUserAccount());
+        loginUserBean.setUserName(checkpoint.getUserName());
+        UserContextHolder.setUserInfo(loginUserBean);
+        LocaleContextHolder.setLocale(locale);
+        AsyncRequestTokenHelper.setLang(locale.toLanguageTag());
+    }
+
+    /**
+     * 创建初始断点
+     *
+     * @param exportRecordId   导出记录ID
+     * @param entity           导出参数实体
+     * @param options          导出选项
+     * @param queryJson        查询条件JSON
+     * @param pageSize         分页条数
+     * @param excludeFieldList 要排除的字段名列表
+     * @return 断点信息
+     */
+    private static ExportCheckpoint newCheckpoint(long exportRecordId, ExcelModelEntity entity, ExportOptions options, String queryJson,
+                                                  int pageSize, List<String> excludeFieldList) {
+        ExportCheckpoint checkpoint = new ExportCheckpoint();
+        checkpoint.setExportRecordId(exportRecordId);
+        checkpoint.setTaskType(entity.getTaskType());
+        checkpoint.setFileName(entity.getFileName());
+        checkpoint.setQueryJson(queryJson);
+        checkpoint.setExcludeFieldList(excludeFieldList);
+        checkpoint.setOptions(options);
+        checkpoint.setPageSize(pageSize);
+        checkpoint.setSpoolPath(getSpoolPath(exportRecordId));
+        checkpoint.setUserAccount(UserContextHolder.getUserAccount());
+        checkpoint.setUserName(UserContextHolder.getUserName());
+        checkpoint.setLanguageTag(LocaleContextHolder.getLocale().toLanguageTag());
+        return checkpoint;
+    }
+
+    private static String getSpoolPath(long exportRecordId) {
+        return new File(exportTempStorage.getCheckpointStore().getDir(), exportRecordId + ".spool").getPath();
+    }
+
+    /**
+     * 取消排队中或运行中的导出任务，导出线程在下一页之前停止，删除临时文件，导出记录标记为已取消；
+     * 排队中的任务在轮到执行时立即结束
+     *
+     * @param exportRecordId 导出记录ID
+     * @return 任务未结束并已请求取消返回true，任务不存在或已结束返回false
+     * @throws SimpleException 当前用户不是发起人时抛出
+     */
+    public static boolean cancelExport(long exportRecordId) {
+        String userAccount = UserContextHolder.getUserAccount();
+        if (exportJobRegistry.cancel(exportRecordId, userAccount)) {
+            return true;
+        }
+        // 集群队列任务可能尚未认领，或在其他节点执行：未认领的直接取消，执行中的标记后由执行节点续期租约时停止
+        return baseCommonService2.cancelQueuedExportJob(exportRecordId, userAccount, new Date())
+                || baseCommonService2.requestCancelExportJob(exportRecordId, userAccount);
+    }
+
+    /**
+     * 下载导入模板（备注行、表头、样例数据和下拉框）
+     * <p>
+     * 渲染结果按 模型类 + 语言 + 下拉数据版本 缓存，命中时直接输出XLSX字节，不调用 dropDownLoader；
+     * 下拉选项较多时写入隐藏的引用Sheet页，不受内联列表长度限制
+     * </p>
+     *
+     * @param response        HTTP响应
+     * @param clazz           导入模型类，必须包含@ExcelModel和@ExcelColumn注解
+     * @param dropDownVersion 下拉数据版本，下拉数据变化时须更换，没有下拉框时传null
+     * @param dropDownLoader  下拉框加载函数，只在缓存未命中时调用，可为null
+     */
+    public static <T> void downloadTemplate(HttpServletResponse response, Class<T> clazz, String dropDownVersion,
+                                            Supplier<List<HiddenSheetDropDownWriteHandler.DropDownInfo>> dropDownLoader) {
+        String lang = LanguageEnum.isCn() ? "cn" : "en";
+        ExportTemplateCache.Template template = ExportTemplateCache.get(clazz, lang, dropDownVersion,
+                () -> renderTemplate(clazz, dropDownLoader == null ? Collections.emptyList() : dropDownLoader.get()));
+
+        String file = UriUtils.encode(template.getFileName(), StandardCharsets.UTF_8);
+        response.addHeader("Content-Disposition", "attachment;filename*=utf-8''" + file);
+        response.addHeader("filename", file);
+        response.setContentType("application/octet-stream; charset=UTF-8");
+        response.setContentLength(template.getContent().length);
+        try {
+            response.getOutputStream().write(template.getContent());
+        } catch (IOException e) {
+            throw new SimpleException("Write template failed.", e);
+        }
+    }
+
+    /**
+     * 渲染导入模板
+     *
+     * @param clazz         导入模型类
+     * @param dropDownInfos 下拉框信息
+     * @return 已渲染的模板
+     */
+    private static <T> ExportTemplateCache.Template renderTemplate(Class<T> clazz, List<HiddenSheetDropDownWriteHandler.DropDownInfo> dropDownInfos) {
+        ExcelModelEntity entity = extractExcelModel(clazz, true);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ExcelWriter writer = new ExcelWriterBuilder()
+                .autoCloseStream(true)
+                .excelType(ExcelTypeEnum.XLSX)
+                .file(outputStream)
+                .build();
+        WriteSheet writeSheet = EasyExcel.writerSheet(entity.getSheetName())
+                .registerWriteHandler(new HiddenSheetDropDownWriteHandler(dropDownInfos))
+                .build();
+
+        // 备注表头，每列都是备注，自动合并成一行
+        List<List<String>> headList = entity.getHeadList();
+        List<List<String>> remarkHeadList = new ArrayList<>(headList.size());
+        headList.forEach(h -> remarkHeadList.add(Collections.singletonList(entity.getRemark())));
+        WriteTable remarkTable = EasyExcel.writerTable(0).head(remarkHeadList)
+                .automaticMergeHead(true)
+                .registerWriteHandler(new ExcelCellStyleStrategy(true))
+                .registerWriteHandler(new SimpleRowHeightStyleStrategy((short) entity.getRemarkHeight(), (short) entity.getRemarkHeight()))
+                .build();
+        WriteTable dataTable = EasyExcel.writerTable(1).head(headList)
+                .registerWriteHandler(new ExcelCellStyleStrategy(entity.getAlignmentList(), true))
+                .registerWriteHandler(new WidthStyleStrategy(entity.getWidthList()))
+                .registerWriteHandler(new SimpleRowHeightStyleStrategy((short) entity.getTitleHeight(), (short) entity.getContentHeight()))
+                .build();
+
+        writer.write(Collections.emptyList(), writeSheet, remarkTable);
+        writer.write(entity.getExampleList(), writeSheet, dataTable);
+        writer.finish();
+        return new ExportTemplateCache.Template(entity.getFileName(), outputStream.toByteArray());
+    }
+
+    /**
+     * 计算导出请求指纹，未开启合并时返回null
+     * <p>
+     * 指纹不包含处理器的数据来源：处理器是 lambda、匿名类等每次请求新建的对象时，只按调用方指定的 options.coalesceKey 合并；
+     * 处理器是稳定的类（如Spring Bean）时，处理器类名参与指纹计算
+     * </p>
+     *
+     * @param entity           导出参数实体
+     * @param clazz            数据模型类
+     * @param handler          分页查询处理器
+     * @param query            分页查询条件
+     * @param excludeFieldList 要排除的字段名列表
+     * @param options          导出选项
+     * @param requireKey       过滤条件是否在处理器中（游标分页、列投影版本），为true时未指定 options.coalesceKey 不合并
+     * @return 指纹
+     */
+    private static String getFingerprint(ExcelModelEntity entity, Class<?> clazz, Object handler, PageQuery query, List<String> excludeFieldList,
+                                         ExportOptions options, boolean requireKey) {
+        // 附加Sheet页的查询条件无法参与指纹计算，不合并
+        if (!options.isCoalesce() || !options.getExtraSheets().isEmpty()) {
+            return null;
+        }
+        if ((requireKey || !isStableHandler(handler)) && StringUtils.isBlank(options.getCoalesceKey())) {
+            return null;
+        }
+        return ExportCoalescer.fingerprint(entity.getTaskType(), clazz, Arrays.asList(query, options.getCoalesceKey(), handler.getClass().getName()),
+                excludeFieldList, options.getFormat(), LocaleContextHolder.getLocale(), UserContextHolder.getUserAccount());
+    }
+
+    /**
+     * 处理器是否为稳定的具名类，lambda、匿名类、局部类可能捕获了未参与指纹计算的条件
+     */
+    private static boolean isStableHandler(Object handler) {
+        Class<?> handlerClass = handler.getClass();
+        return !handlerClass.isSynthetic() && !handlerClass.isAnonymousClass() && !handlerClass.isLocalClass()
+                && !handlerClass.getName().contains("$$Lambda");
+    }
+
+    /**
+     * 创建导出记录并提交异步导出任务
+     * <p>
+     * 指纹不为空时，相同指纹的请求复用有效期内的结果或挂到进行中的任务上，只更新各自的导出记录
+     * </p>
+     *
+     * @param entity      导出参数实体，包含Excel配置信息
+     * @param fingerprint 导出请求指纹，为null时不合并
+     * @param options     导出选项
+     * @param exporter    导出并上传文件的函数，在异步线程中执行，返回文件ID
+     */
+    static void submitExport(ExcelModelEntity entity, String fingerprint, ExportOptions options, Function<ExportJobContext, String> exporter) {
         if (StringUtils.isBlank(entity.getTaskType())) {
             throw new SimpleException("The task type cannot be empty.");
         }
 
-        entity.setSecondSheetList(secondSheetList);
         LoginUserBean loginUserBean = UserContextHolder.get();
         Locale locale = LocaleContextHolder.getLocale();
 
@@ -111,33 +627,122 @@ public class ExportHelper2 {
         ResultVo<Long> rv = baseCommonService2.createExportRecord(loginUserBean.getUserName(), entity.getTaskType(), entity.getFileName(), entity.getFileName());
         long exportRecordId = rv.getData();
 
-        // 异步导出
-        CompletableFuture.runAsync(() -> {
-            UserContextHolder.setUserInfo(loginUserBean);
-            LocaleContextHolder.setLocale(locale);
-            AsyncRequestTokenHelper.setLang(locale.toLanguageTag());
-            // 执行异步导出
-            executeAsyncExport(handler, query, entity, exportRecordId);
-        }, threadPoolTaskExecutor);
+        if (fingerprint != null) {
+            // 有效期内已完成的相同导出，直接复用文件
+            String reuseFileId = ExportCoalescer.getCompleted(fingerprint);
+            if (reuseFileId != null) {
+                updateExportRecord(entity, exportRecordId, reuseFileId, "success");
+                return;
+            }
+            // 相同导出进行中，完成后更新当前记录
+            CompletableFuture<ExportCoalescer.ExportResult> own = new CompletableFuture<>();
+            CompletableFuture<ExportCoalescer.ExportResult> running = ExportCoalescer.attach(fingerprint, own);
+            if (running != own) {
+                running.whenCompleteAsync((result, e) -> {
+                    UserContextHolder.setUserInfo(loginUserBean);
+                    LocaleContextHolder.setLocale(locale);
+                    if (e != null || result == null) {
+                        log.error("Coalesced export failed, exportRecordId:{}", exportRecordId, e);
+                        updateExportRecord(entity, exportRecordId, null, e == null ? "Failed" : StringUtils.left(e.getMessage(), 500));
+                        return;
+                    }
+                    updateExportRecord(entity, exportRecordId, result.getFileId(), result.getErrorMsg(), result.isCancelled(), null);
+                }, threadPoolTaskExecutor);
+                return;
+            }
+        }
+
+        try {
+            scheduleExport(entity, exportRecordId, fingerprint, options, exporter);
+        } catch (RuntimeException e) {
+            if (fingerprint != null) {
+                // 提交失败（如排队已满）时结束合并，已挂上的请求不再等待
+                ExportCoalescer.complete(fingerprint, new ExportCoalescer.ExportResult(null, StringUtils.left(e.getMessage(), 500)), 0);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 提交异步导出任务，超出并发限制时排队
+     *
+     * @param entity         导出参数实体，包含Excel配置信息
+     * @param exportRecordId 导出记录ID
+     * @param fingerprint    导出请求指纹，为null时不合并
+     * @param options        导出选项
+     * @param exporter       导出并上传文件的函数，在异步线程中执行，返回文件ID
+     */
+    private static void scheduleExport(ExcelModelEntity entity, long exportRecordId, String fingerprint, ExportOptions options, Function<ExportJobContext, String> exporter) {
+        LoginUserBean loginUserBean = UserContextHolder.get();
+        Locale locale = LocaleContextHolder.getLocale();
+        long submitNanos = System.nanoTime();
+        AtomicBoolean waiting = new AtomicBoolean(false);
+        // 提交时登记，排队中的任务也可以取消
+        ExportJobHandle handle = new ExportJobHandle(exportRecordId);
+        exportJobRegistry.register(handle, entity.getTaskType(), loginUserBean.getUserAccount());
+        try {
+            // 按账号限制并发，姓名可能重名
+            exportScheduler.submit(loginUserBean.getUserAccount(), entity.getTaskType(), () -> {
+                UserContextHolder.setUserInfo(loginUserBean);
+                LocaleContextHolder.setLocale(locale);
+                AsyncRequestTokenHelper.setLang(locale.toLanguageTag());
+                if (waiting.get() && !handle.isCancelled()) {
+                    updateExportRecordStatus(exportRecordId, ExportStatusEnum.RUNNING);
+                }
+                // 执行异步导出
+                ExportCoalescer.ExportResult result = new ExportCoalescer.ExportResult(null, "Failed");
+                try {
+                    handle.start();
+                    ExportJobContext ctx = new ExportJobContext(exportRecordId, entity, options, exportMemoryBudget, handle);
+                    ctx.getMetrics().recordQueueWait(System.nanoTime() - submitNanos);
+                    result = executeAsyncExport(ctx, exporter);
+                } finally {
+                    exportJobRegistry.unregister(exportRecordId);
+                    if (fingerprint != null) {
+                        ExportCoalescer.complete(fingerprint, result, options.getReuseSeconds());
+                    }
+                }
+            }, () -> {
+                waiting.set(true);
+                updateExportRecordStatus(exportRecordId, ExportStatusEnum.WAITING);
+            }, () -> {
+                // 线程池已关闭，任务不会再执行
+                String errorMsg = "Export rejected, the service is shutting down.";
+                exportJobRegistry.unregister(exportRecordId);
+                if (fingerprint != null) {
+                    ExportCoalescer.complete(fingerprint, new ExportCoalescer.ExportResult(null, errorMsg), options.getReuseSeconds());
+                }
+                UserContextHolder.setUserInfo(loginUserBean);
+                updateExportRecord(entity, exportRecordId, null, errorMsg);
+            });
+        } catch (RuntimeException e) {
+            exportJobRegistry.unregister(exportRecordId);
+            throw e;
+        }
     }
 
     /**
      * 执行异步导出核心逻辑
      *
-     * @param handler 分页查询处理器，用于获取数据
-     * @param query   分页查询条件，包含分页参数
-     * @param entity  导出参数实体，包含Excel配置信息
-     * @param exportRecordId 导出记录ID，用于跟踪导出任务状态
+     * @param ctx      导出任务上下文，包含导出记录ID、Excel配置信息、导出选项和进度
+     * @param exporter 导出并上传文件的函数，返回文件ID
+     * @return 导出结果
      */
-    private static <T> void executeAsyncExport(ExportHelper.ExportPageHandler<T> handler, PageQuery query, ExcelModelEntity entity, long exportRecordId) {
+    private static ExportCoalescer.ExportResult executeAsyncExport(ExportJobContext ctx, Function<ExportJobContext, String> exporter) {
         String fileId = null;
         String errorMsg = "success";
+        exportProgressReporter.register(ctx.getProgress());
         try {
+            // 排队期间已取消的任务不再执行
+            ctx.getHandle().check(0);
             // 导出并上传文件
-            fileId = exportAndUploadExcel(entity, handler, query);
+            fileId = exporter.apply(ctx);
             if (StringUtils.isBlank(fileId)) {
                 errorMsg = "Failed";
             }
+        } catch (ExportCancelledException e) {
+            log.info("Export cancelled, exportRecordId:{}, reason:{}", ctx.getExportRecordId(), e.getMessage());
+            errorMsg = e.getMessage();
         } catch (Exception e) {
             log.error("Export excel error", e);
             errorMsg = e.getMessage();
@@ -145,9 +750,21 @@ public class ExportHelper2 {
                 errorMsg = errorMsg.substring(0, 500);
             }
         } finally {
-            // 更新导出记录
-            updateExportRecord(entity, exportRecordId, fileId, errorMsg);
+            exportProgressReporter.unregister(ctx.getProgress());
+            // 预取队列中未写出的分页等，任务结束时统一归还预算
+            ctx.getMemory().releaseAll();
+            ctx.getMetrics().publish(ctx.getProgress());
+            log.info("Export finished, taskType:{}, exportRecordId:{}, {}", ctx.getEntity().getTaskType(), ctx.getExportRecordId(),
+                    ctx.getMetrics().summary(ctx.getProgress()));
+            if (ctx.getHandle().isDetached()) {
+                // 集群队列任务已由其他节点接管，导出记录由新的执行节点更新
+                log.warn("Export lease lost, skip updating record, exportRecordId:{}", ctx.getExportRecordId());
+            } else {
+                // 更新导出记录
+                updateExportRecord(ctx.getEntity(), ctx.getExportRecordId(), fileId, errorMsg, ctx);
+            }
         }
+        return new ExportCoalescer.ExportResult(fileId, errorMsg, fileId == null && ctx.getHandle().isCancelled());
     }
 
     /**
@@ -159,35 +776,432 @@ public class ExportHelper2 {
      * @param errorMsg 错误信息，成功时为"success"
      */
     private static void updateExportRecord(ExcelModelEntity entity, long exportRecordId, String fileId, String errorMsg) {
+        updateExportRecord(entity, exportRecordId, fileId, errorMsg, null);
+    }
+
+    /**
+     * 更新导出记录状态、最终进度及分阶段耗时摘要
+     *
+     * @param entity 导出参数实体，包含文件名等信息
+     * @param exportRecordId 导出记录ID
+     * @param fileId 上传成功后的文件ID，null表示失败
+     * @param errorMsg 错误信息，成功时为"success"
+     * @param ctx 导出任务上下文，可为null
+     */
+    private static void updateExportRecord(ExcelModelEntity entity, long exportRecordId, String fileId, String errorMsg, ExportJobContext ctx) {
+        updateExportRecord(entity, exportRecordId, fileId, errorMsg, ctx != null && ctx.getHandle().isCancelled(), ctx);
+    }
+
+    /**
+     * 更新导出记录状态、最终进度及分阶段耗时摘要
+     *
+     * @param entity 导出参数实体，包含文件名等信息
+     * @param exportRecordId 导出记录ID
+     * @param fileId 上传成功后的文件ID，null表示失败
+     * @param errorMsg 错误信息，成功时为"success"
+     * @param cancelled 任务已被取消，未上传文件时标记为已取消
+     * @param ctx 导出任务上下文，可为null
+     */
+    private static void updateExportRecord(ExcelModelEntity entity, long exportRecordId, String fileId, String errorMsg, boolean cancelled, ExportJobContext ctx) {
         ComExportRecordVO recordVO = new ComExportRecordVO();
+        if (ctx != null) {
+            ExportProgressReporter.fillProgress(recordVO, ctx.getProgress());
+            recordVO.setMetricsSummary(ctx.getMetrics().summary(ctx.getProgress()));
+            recordVO.setWatermarkKey(ctx.getWatermarkKey());
+            recordVO.setWatermarkFrom(ctx.getWatermarkFrom());
+            recordVO.setWatermarkTo(ctx.getWatermarkTo());
+        }
         recordVO.setEndTime(new Date());
-        recordVO.setStatus(fileId != null ? 1 : 2);
+        if (fileId == null && cancelled) {
+            recordVO.setStatus(ExportStatusEnum.CANCELLED.getCode());
+        } else {
+            recordVO.setStatus(fileId != null ? ExportStatusEnum.SUCCESS.getCode() : ExportStatusEnum.FAILED.getCode());
+        }
+        if (ctx != null && ctx.getImportErrorCount() != null) {
+            recordVO.setSuccessCount(ctx.getImportSuccessCount());
+            recordVO.setErrorCount(ctx.getImportErrorCount());
+            if (fileId != null && ctx.getImportErrorCount() > 0) {
+                // 结果文件仍然上传，供下载失败行
+                recordVO.setStatus(ctx.getImportSuccessCount() > 0 ? ExportStatusEnum.PARTIAL_SUCCESS.getCode() : ExportStatusEnum.FAILED.getCode());
+                errorMsg = ctx.getImportErrorCount() + " rows failed.";
+            }
+        }
         recordVO.setFileId(fileId);
         recordVO.setFileName(entity.getFileName());
         recordVO.setId(exportRecordId);
         recordVO.setErrorMsg(errorMsg);
+        String leaseOwner = ctx == null ? null : ctx.getHandle().getLeaseOwner();
+        if (leaseOwner == null) {
+            baseCommonService2.updateExportRecord(recordVO);
+        } else if (!baseCommonService2.finishExportJob(recordVO, leaseOwner)) {
+            // 租约已过期并被其他节点重新认领，结果以新的执行节点为准
+            log.warn("Export lease lost before finishing, exportRecordId:{}, nodeId:{}", exportRecordId, leaseOwner);
+        }
+    }
+
+    /**
+     * 更新导出记录状态（排队、执行中）
+     *
+     * @param exportRecordId 导出记录ID
+     * @param status 导出状态
+     */
+    private static void updateExportRecordStatus(long exportRecordId, ExportStatusEnum status) {
+        ComExportRecordVO recordVO = new ComExportRecordVO();
+        recordVO.setId(exportRecordId);
+        recordVO.setStatus(status.getCode());
         baseCommonService2.updateExportRecord(recordVO);
     }
 
     /**
      * 导出Excel文件并上传到文件服务器
      *
-     * @param entity 导出参数实体，包含Excel配置信息
-     * @param handler 分页查询处理器，用于获取数据
-     * @param query 分页查询条件
+     * @param ctx 导出任务上下文
+     * @param fetcher 分页获取函数，用于获取数据
      * @return 上传成功后的文件ID
      */
-    private static <T> String exportAndUploadExcel(ExcelModelEntity entity, ExportHelper.ExportPageHandler<T> handler, PageQuery query) {
+    private static String exportAndUploadExcel(ExportJobContext ctx, ExportPageFetcher fetcher) {
+        ExcelModelEntity entity = ctx.getEntity();
+        ExportOptions options = ctx.getOptions();
+        if (options.isStreamUpload()) {
+            return exportAndStreamUploadExcel(ctx, fetcher);
+        }
         String userId = UserContextHolder.getUserAccount();
 
-        // 导出到临时文件
-        File tempFile = getTempFile(entity.getTaskType(), userId);
-        ExcelWriter writer = getExcelWriter(tempFile);
-        queryAndWrite(writer, entity, handler, query);
-        writer.finish();
+        // 导出到临时文件，上传成功或失败后都删除
+        try (ExportTempFile tempFile = getTempFile(ctx, userId, options.getFormat().getSuffix())) {
+            if (options.getFormat() == ExportFormatEnum.XLSX) {
+                ExcelWriter writer = getExcelWriter(tempFile.getFile());
+                try {
+                    queryAndWrite(writer, ctx, fetcher);
+                } finally {
+                    // 取消或失败时也要关闭文件，才能删除
+                    finish(writer, ctx);
+                }
+            } else {
+                try (OutputStream outputStream = new FileOutputStream(tempFile.getFile())) {
+                    queryAndWriteCsv(outputStream, ctx, fetcher);
+                } catch (IOException e) {
+                    throw new SimpleException("Write csv file failed.", e);
+                }
+            }
+            ctx.getMetrics().recordBytes(tempFile.settle());
+
+            // 文件上传到文件服务器
+            return uploadFile(userId, tempFile.getFile(), ctx.getMetrics());
+        }
+    }
 
-        // 文件上传到文件服务器
-        return uploadFile(userId, tempFile);
+    /**
+     * 可续传导出：按断点继续查询并追加到中间文件，查询完成后编码成目标格式上传
+     *
+     * @param ctx        导出任务上下文
+     * @param handler    可续传导出处理器
+     * @param checkpoint 断点信息，首次导出时为初始断点
+     * @return 上传成功后的文件ID
+     */
+    private static <T, Q> String exportResumable(ExportJobContext ctx, ResumableExportHandler<T, Q> handler, ExportCheckpoint checkpoint) {
+        Q query = ExportCheckpointStore.fromJson(checkpoint.getQueryJson(), handler.queryClass());
+        ExportProjection projection = ExportProjection.of(handler.modelClass(), checkpoint.getExcludeFieldList(), null);
+        ExportBatchSizer sizer = getBatchSizer(ctx);
+        int pageSize = sizer == null ? checkpoint.getPageSize() : sizer.initialPageSize(checkpoint.getPageSize());
+        int checkpointPages = Math.max(1, ctx.getOptions().getCheckpointPages());
+        ctx.getProgress().restore(checkpoint.getRowCount(), checkpoint.getPageCount());
+
+        ExportSpool spool = ExportSpool.open(new File(checkpoint.getSpoolPath()), checkpoint.getSpoolLength());
+        try {
+            // 查询第一页前先保存断点，前 checkpointPages 页内宕机时重启后也能找回任务
+            exportTempStorage.getCheckpointStore().save(checkpoint);
+            String lastKey = checkpoint.getLastKey();
+            long rowCount = checkpoint.getRowCount();
+            int pageCount = checkpoint.getPageCount();
+            boolean last = checkpoint.isQueryFinished();
+            while (!last) {
+                ctx.getHandle().check(rowCount);
+                long reserved = ctx.getMemory().reserve(pageSize);
+                long start = System.nanoTime();
+                ExportCursorPage<T, String> cursorPage = handler.page(query, lastKey, pageSize, projection);
+                long queryNanos = System.nanoTime() - start;
+                ctx.getMetrics().recordQuery(queryNanos);
+                List<T> list = cursorPage.getRows() == null ? Collections.emptyList() : cursorPage.getRows();
+                ExportPage page = toExportPage(ctx, list, false, reserved);
+                spool.append(page.getDataList());
+                releasePage(ctx, page);
+                ctx.getProgress().onPage(list.size(), 1);
+                rowCount += list.size();
+                pageCount++;
+                // 查询结果数据量小于分页数量或没有下一页key，查询结束
+                last = list.size() < pageSize || cursorPage.getNextKey() == null;
+                lastKey = cursorPage.getNextKey();
+                pageSize = nextPageSize(sizer, pageSize, 0, page, queryNanos);
+                if (last || pageCount % checkpointPages == 0) {
+                    // 先刷盘再保存断点，断点中的长度之前的数据一定已落盘
+                    checkpoint.setSpoolLength(spool.sync());
+                    checkpoint.setLastKey(lastKey);
+                    checkpoint.setQueryFinished(last);
+                    checkpoint.setRowCount(rowCount);
+                    checkpoint.setPageCount(pageCount);
+                    exportTempStorage.getCheckpointStore().save(checkpoint);
+                }
+            }
+            // 查询阶段已计入进度，编码阶段使用独立进度，避免重复计数
+            ExportJobContext encodeCtx = ctx.withDetachedProgress();
+            ExportPageFetcher reader = spool.reader(pageSize);
+            return exportAndUploadExcel(encodeCtx, () -> {
+                ExportPage page = reader.next();
+                encodeCtx.getMetrics().onRowsLoaded(page.getRowCount());
+                return page;
+            });
+        } finally {
+            spool.close();
+            // 正常结束（成功或失败）后不再恢复；进程宕机时执行不到这里，断点保留到重启后继续
+            exportTempStorage.getCheckpointStore().delete(checkpoint);
+        }
+    }
+
+    /**
+     * 导出Excel并通过有界管道流式上传到文件服务器，不落临时文件
+     *
+     * @param ctx 导出任务上下文
+     * @param fetcher 分页获取函数，用于获取数据
+     * @return 上传成功后的文件ID
+     */
+    private static String exportAndStreamUploadExcel(ExportJobContext ctx, ExportPageFetcher fetcher) {
+        ExcelModelEntity entity = ctx.getEntity();
+        String userId = UserContextHolder.getUserAccount();
+        ExportUploadPipe pipe = new ExportUploadPipe(STREAM_BUFFER_SIZE);
+
+        // 上传线程读取管道，写入线程在缓冲区满时阻塞；上传线程独立于业务线程池
+        LoginUserBean loginUserBean = UserContextHolder.get();
+        Locale locale = LocaleContextHolder.getLocale();
+        CompletableFuture<String> uploadFuture = CompletableFuture.supplyAsync(() -> {
+            UserContextHolder.setUserInfo(loginUserBean);
+            LocaleContextHolder.setLocale(locale);
+            // 上传与编码并行，上传耗时为整个管道的读取时间
+            long start = System.nanoTime();
+            try (InputStream in = pipe.getInputStream()) {
+                ResultVo<GBassFilePO> resultVo = baseCommonService2.uploadFile(entity.getFileName(), in, 1, userId, "", null);
+                return resultVo.getData().getGbassFileId();
+            } catch (IOException e) {
+                throw new SimpleException("Upload export stream failed.", e);
+            } finally {
+                ctx.getMetrics().recordUpload(System.nanoTime() - start);
+            }
+        }, exportScheduler.getUploadExecutor());
+
+        CountingOutputStream countingStream = new CountingOutputStream(pipe.getOutputStream());
+        // 写入器出错时也会关闭输出流，屏蔽关闭，只在完整写完后关闭管道，避免上传线程把截断的数据当作流结束
+        OutputStream writeStream = new CloseShieldOutputStream(countingStream);
+        try {
+            if (ctx.getOptions().getFormat() == ExportFormatEnum.XLSX) {
+                ExcelWriter writer = getExcelWriter(writeStream);
+                queryAndWrite(writer, ctx, fetcher);
+                finish(writer, ctx);
+            } else {
+                queryAndWriteCsv(writeStream, ctx, fetcher);
+            }
+            // 完整写完，上传线程读到流结束
+            countingStream.close();
+            ctx.getMetrics().recordBytes(countingStream.getByteCount());
+        } catch (IOException e) {
+            abortStreamUpload(pipe, uploadFuture, e);
+            throw new SimpleException("Write export stream failed.", e);
+        } catch (RuntimeException e) {
+            abortStreamUpload(pipe, uploadFuture, e);
+            throw e;
+        }
+        return uploadFuture.join();
+    }
+
+    /**
+     * 写入失败或取消时中断流式上传
+     * <p>
+     * 管道置为失败，上传线程下一次读取即抛出异常，上传请求中断；上传线程已读到流结束、文件仍被提交时删除该文件
+     * </p>
+     *
+     * @param pipe         上传管道
+     * @param uploadFuture 上传任务
+     * @param cause        失败原因
+     */
+    private static void abortStreamUpload(ExportUploadPipe pipe, CompletableFuture<String> uploadFuture, Exception cause) {
+        pipe.fail(cause);
+        uploadFuture.whenComplete((fileId, e) -> {
+            if (fileId == null) {
+                return;
+            }
+            log.warn("Delete incomplete export file, fileId:{}", fileId);
+            try {
+                baseCommonService2.deleteFile(fileId);
+            } catch (Exception ex) {
+                log.error("Delete incomplete export file error, fileId:{}", fileId, ex);
+            }
+        });
+    }
+
+    /**
+     * 分区并行导出并上传到文件服务器
+     *
+     * @param ctx         导出任务上下文
+     * @param partitioner 数据分区器
+     * @param pageSize    分页条数
+     * @param projection  导出列投影
+     * @return 上传成功后的文件ID
+     */
+    private static <T, P> String exportAndUploadPartitions(ExportJobContext ctx, ExportPartitioner<T, P> partitioner, int pageSize, ExportProjection projection) {
+        ExportOptions options = ctx.getOptions();
+        String userId = UserContextHolder.getUserAccount();
+        List<P> partitions = partitioner.partitions();
+        int parallelism = options.getPartitionParallelism() > 0 ? options.getPartitionParallelism()
+                : Math.min(Runtime.getRuntime().availableProcessors(), 8);
+        // 共享的分区线程池，单个任务按提交顺序最多同时执行 parallelism 个分区
+        ExportLimitedExecutor partitionExecutor = exportScheduler.newPartitionExecutor(Math.min(parallelism, partitions.size()));
+        try {
+            ctx.getHandle().check(0);
+            try (ExportTempFile tempFile = options.getPartitionOutput() == ExportPartitionOutputEnum.ZIP
+                    ? writePartitionZip(ctx, partitioner, partitions, pageSize, projection, userId, partitionExecutor)
+                    : writePartitionSheets(ctx, partitioner, partitions, pageSize, projection, userId, partitionExecutor)) {
+                ctx.getMetrics().recordBytes(tempFile.settle());
+                // 文件上传到文件服务器
+                return uploadFile(userId, tempFile.getFile(), ctx.getMetrics());
+            }
+        } finally {
+            partitionExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * 分区并行查询、转换，按分区顺序写入同一工作簿的不同Sheet页
+     */
+    private static <T, P> ExportTempFile writePartitionSheets(ExportJobContext ctx, ExportPartitioner<T, P> partitioner, List<P> partitions, int pageSize, ExportProjection projection,
+                                                    String userId, ExportLimitedExecutor partitionExecutor) {
+        ExcelModelEntity entity = ctx.getEntity();
+        // 同一工作簿只能单线程写入，各分区预取到有界队列，写入线程依次消费
+        int prefetchDepth = Math.max(1, ctx.getOptions().getPrefetchDepth());
+        List<ExportPagePrefetcher> prefetchers = new ArrayList<>(partitions.size());
+        List<String> sheetNames = getPartitionSheetNames(entity, partitioner, partitions);
+        ExportTempFile tempFile = getTempFile(ctx, userId, ExcelTypeEnum.XLSX.getValue());
+        ExcelWriter writer = getExcelWriter(tempFile.getFile());
+        if (partitions.isEmpty()) {
+            // 没有分区时只输出表头
+            writer.write(Collections.emptyList(), getWriteSheet(entity, entity.getSheetName()));
+        }
+        try {
+            for (P partition : partitions) {
+                prefetchers.add(new ExportPagePrefetcher(getPartitionPageFetcher(ctx, partitioner, partition, pageSize, projection), prefetchDepth, partitionExecutor));
+            }
+            for (int i = 0; i < partitions.size(); i++) {
+                writePages(writer, entity, sheetNames.get(i), prefetchers.get(i)::take, ctx);
+            }
+            writeExtraSheets(writer, ctx);
+        } catch (RuntimeException e) {
+            finish(writer, ctx);
+            tempFile.close();
+            throw e;
+        } finally {
+            prefetchers.forEach(ExportPagePrefetcher::close);
+        }
+        finish(writer, ctx);
+        return tempFile;
+    }
+
+    /**
+     * 分区Sheet名：Sheet名-分区名，替换Excel不允许的字符并截断到31个字符，重名（不区分大小写）时加序号
+     */
+    private static <T, P> List<String> getPartitionSheetNames(ExcelModelEntity entity, ExportPartitioner<T, P> partitioner, List<P> partitions) {
+        Set<String> usedNames = new HashSet<>();
+        List<String> names = new ArrayList<>(partitions.size());
+        for (P partition : partitions) {
+            String name = WorkbookUtil.createSafeSheetName(entity.getSheetName() + "-" + partitioner.name(partition));
+            names.add(uniqueName(name, SHEET_NAME_MAX, usedNames));
+        }
+        return names;
+    }
+
+    /**
+     * 分区文件名：文件名-分区名.xlsx，替换路径分隔符和文件名不允许的字符，避免解压到压缩包目录之外，重名（不区分大小写）时加序号
+     */
+    private static <T, P> List<String> getPartitionEntryNames(ExcelModelEntity entity, ExportPartitioner<T, P> partitioner, List<P> partitions) {
+        String baseName = StringUtils.substringBeforeLast(entity.getFileName(), ".");
+        Set<String> usedNames = new HashSet<>();
+        List<String> names = new ArrayList<>(partitions.size());
+        for (P partition : partitions) {
+            String name = (baseName + "-" + partitioner.name(partition)).replaceAll("[\\\\/:*?\"<>|\\p{Cntrl}]", "_");
+            if (StringUtils.containsOnly(name, '.')) {
+                name = "_";
+            }
+            names.add(uniqueName(name, Integer.MAX_VALUE, usedNames) + ExcelTypeEnum.XLSX.getValue());
+        }
+        return names;
+    }
+
+    /**
+     * 重名时在末尾加 (2)、(3)...，加序号后仍不超过最大长度
+     *
+     * @param name      名称
+     * @param maxLength 最大长度
+     * @param usedNames 已使用的名称（小写）
+     * @return 不重名的名称
+     */
+    private static String uniqueName(String name, int maxLength, Set<String> usedNames) {
+        String candidate = name;
+        for (int i = 2; !usedNames.add(candidate.toLowerCase(Locale.ROOT)); i++) {
+            String suffix = "(" + i + ")";
+            candidate = StringUtils.left(name, maxLength - suffix.length()) + suffix;
+        }
+        return candidate;
+    }
+
+    /**
+     * 分区并行查询、写入各自的XLSX文件，再打包成zip
+     */
+    private static <T, P> ExportTempFile writePartitionZip(ExportJobContext ctx, ExportPartitioner<T, P> partitioner, List<P> partitions, int pageSize, ExportProjection projection,
+                                                 String userId, ExportLimitedExecutor partitionExecutor) {
+        ExcelModelEntity entity = ctx.getEntity();
+        List<String> entryNames = getPartitionEntryNames(entity, partitioner, partitions);
+        LoginUserBean loginUserBean = UserContextHolder.get();
+        Locale locale = LocaleContextHolder.getLocale();
+        List<CompletableFuture<ExportTempFile>> futures = new ArrayList<>(partitions.size());
+        for (P partition : partitions) {
+            futures.add(partitionExecutor.supply(() -> {
+                UserContextHolder.setUserInfo(loginUserBean);
+                LocaleContextHolder.setLocale(locale);
+                AsyncRequestTokenHelper.setLang(locale.toLanguageTag());
+                ExportTempFile partFile = getTempFile(ctx, userId, ExcelTypeEnum.XLSX.getValue());
+                ExcelWriter writer = getExcelWriter(partFile.getFile());
+                try {
+                    writePages(writer, entity, entity.getSheetName(), getPartitionPageFetcher(ctx, partitioner, partition, pageSize, projection), ctx);
+                } catch (RuntimeException e) {
+                    finish(writer, ctx);
+                    partFile.close();
+                    throw e;
+                }
+                finish(writer, ctx);
+                partFile.settle();
+                return partFile;
+            }));
+        }
+
+        ExportTempFile zipFile = getTempFile(ctx, userId, ZIP_SUFFIX);
+        try (ZipOutputStream zos = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(zipFile.getFile())))) {
+            for (int i = 0; i < partitions.size(); i++) {
+                try (ExportTempFile partFile = futures.get(i).join()) {
+                    zos.putNextEntry(new ZipEntry(entryNames.get(i)));
+                    Files.copy(partFile.getFile().toPath(), zos);
+                    zos.closeEntry();
+                }
+            }
+        } catch (IOException e) {
+            ctx.getHandle().abort();
+            futures.forEach(f -> f.thenAccept(ExportTempFile::close));
+            zipFile.close();
+            throw new SimpleException("Zip partition files failed.", e);
+        } catch (RuntimeException e) {
+            // 取消或某个分区失败，其余分区在下一页之前停止并删除自己的文件，已完成的分区文件在这里删除
+            ctx.getHandle().abort();
+            futures.forEach(f -> f.thenAccept(ExportTempFile::close));
+            zipFile.close();
+            throw e;
+        }
+        return zipFile;
     }
 
     /**
@@ -195,12 +1209,30 @@ public class ExportHelper2 {
      *
      * @param userId 用户ID，用于文件管理
      * @param tempFile 要上传的临时文件
+     * @param metrics 分阶段耗时统计
      * @return 上传成功后的文件ID
      */
-    private static String uploadFile(String userId, File tempFile) {
-        MultipartFile multipartFile = com.oppo.corehrpt.basic.util.FileUtil.fileToMultipartFile(tempFile);
-        ResultVo<GBassFilePO> resultVo = baseCommonService2.uploadFile(multipartFile, 1, userId, "", null);
-        return resultVo.getData().getGbassFileId();
+    static String uploadFile(String userId, File tempFile, ExportMetrics metrics) {
+        long start = System.nanoTime();
+        try {
+            MultipartFile multipartFile = com.oppo.corehrpt.basic.util.FileUtil.fileToMultipartFile(tempFile);
+            ResultVo<GBassFilePO> resultVo = baseCommonService2.uploadFile(multipartFile, 1, userId, "", null);
+            return resultVo.getData().getGbassFileId();
+        } finally {
+            metrics.recordUpload(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 完成Excel文件写入，计入编码耗时
+     *
+     * @param writer ExcelWriter
+     * @param ctx    导出任务上下文
+     */
+    private static void finish(ExcelWriter writer, ExportJobContext ctx) {
+        long start = System.nanoTime();
+        writer.finish();
+        ctx.getMetrics().recordEncode(System.nanoTime() - start);
     }
 
 
@@ -208,64 +1240,320 @@ public class ExportHelper2 {
      * 分页查询数据并写入Excel
      *
      * @param writer  ExcelWriter，用于写入Excel文件
-     * @param entity  导出参数实体，包含Excel配置信息
-     * @param handler 分页查询处理器，用于获取分页数据
-     * @param query   分页查询条件，包含分页参数
+     * @param ctx     导出任务上下文，options.prefetchDepth大于0时查询与写入并行
+     * @param fetcher 分页获取函数，用于获取分页数据
+     */
+    static void queryAndWrite(ExcelWriter writer, ExportJobContext ctx, ExportPageFetcher fetcher) {
+        ExcelModelEntity entity = ctx.getEntity();
+        ExportOptions options = ctx.getOptions();
+        ExportPagePrefetcher prefetcher = startPrefetch(fetcher, options.getPrefetchDepth());
+        try {
+            writePages(writer, entity, entity.getSheetName(), prefetcher == null ? fetcher : prefetcher::take, ctx);
+        } finally {
+            if (prefetcher != null) {
+                prefetcher.close();
+            }
+        }
+
+        if (CollectionUtils.isNotEmpty(entity.getSecondSheetList())) {
+            Class<?> otherClazz = entity.getSecondSheetList().get(0).getClass();
+            ExcelModelEntity otherEntity = extractExcelModel(otherClazz);
+            WriteSheet writeSheet2 = getWriteSheet(otherEntity, otherEntity.getSheetName());
+            writer.write(getDataList(entity.getSecondSheetList()), writeSheet2);
+        }
+        writeExtraSheets(writer, ctx);
+    }
+
+    /**
+     * 在调度器的预取线程池中启动分页预取，预取线程用完时退回到写入线程中查询
+     *
+     * @param fetcher       分页获取函数
+     * @param prefetchDepth 预取页数，小于等于0时不预取
+     * @return 预取器，不预取时返回null
+     */
+    private static ExportPagePrefetcher startPrefetch(ExportPageFetcher fetcher, int prefetchDepth) {
+        if (prefetchDepth <= 0) {
+            return null;
+        }
+        try {
+            return new ExportPagePrefetcher(fetcher, prefetchDepth, exportScheduler.getPrefetchExecutor());
+        } catch (RejectedExecutionException e) {
+            log.warn("No idle export prefetch thread, query in the writer thread");
+            return null;
+        }
+    }
+
+    /**
+     * 依次分页查询并写入附加Sheet页，与主Sheet页共用进度、内存预算和取消标记
+     *
+     * @param writer ExcelWriter，用于写入Excel文件
+     * @param ctx    导出任务上下文
+     */
+    private static void writeExtraSheets(ExcelWriter writer, ExportJobContext ctx) {
+        for (ExportSheetSource<?> sheet : ctx.getOptions().getExtraSheets()) {
+            ExportJobContext sheetCtx = ctx.withEntity(sheet.getEntity());
+            writePages(writer, sheet.getEntity(), sheet.getEntity().getSheetName(), getSheetPageFetcher(sheetCtx, sheet), sheetCtx);
+        }
+    }
+
+    private static <T> ExportPageFetcher getSheetPageFetcher(ExportJobContext ctx, ExportSheetSource<T> sheet) {
+        return getOffsetPageFetcher(ctx, sheet.getHandler(), sheet.getQuery());
+    }
+
+    /**
+     * 分页查询数据并写入CSV，完成时关闭输出流
+     *
+     * @param outputStream 输出流
+     * @param ctx          导出任务上下文，options.format为CSV_GZIP时压缩输出
+     * @param fetcher      分页获取函数，用于获取分页数据
+     * @throws IOException 写入失败
+     */
+    private static void queryAndWriteCsv(OutputStream outputStream, ExportJobContext ctx, ExportPageFetcher fetcher) throws IOException {
+        ExcelModelEntity entity = ctx.getEntity();
+        ExportOptions options = ctx.getOptions();
+        if (CollectionUtils.isNotEmpty(entity.getSecondSheetList()) || !options.getExtraSheets().isEmpty()) {
+            log.warn("CSV export does not support the second sheet, taskType:{}", entity.getTaskType());
+        }
+        ExportPagePrefetcher prefetcher = startPrefetch(fetcher, options.getPrefetchDepth());
+        ExportPageFetcher source = prefetcher == null ? fetcher : prefetcher::take;
+        try (CsvExportWriter csvWriter = new CsvExportWriter(outputStream, options.getFormat() == ExportFormatEnum.CSV_GZIP)) {
+            csvWriter.writeHead(entity.getHeadList());
+            ExportPage page;
+            do {
+                ctx.getHandle().check(ctx.getProgress().getRowCount().get());
+                page = source.next();
+                long start = System.nanoTime();
+                csvWriter.write(page.getDataList());
+                ctx.getMetrics().recordEncode(System.nanoTime() - start);
+                releasePage(ctx, page);
+                ctx.getProgress().onPage(page.getRowCount(), 1);
+            } while (!page.isLast());
+        } finally {
+            if (prefetcher != null) {
+                prefetcher.close();
+            }
+        }
+    }
+
+    /**
+     * 按页序写入Sheet页，超过Excel Sheet最大行数时自动增加新的Sheet
+     *
+     * @param writer    ExcelWriter，用于写入Excel文件
+     * @param entity    导出参数实体，包含Excel配置信息
+     * @param sheetName Sheet名称
+     * @param fetcher   分页获取函数
+     * @param ctx       导出任务上下文，记录进度和编码耗时
      */
-    private static <T> void queryAndWrite(ExcelWriter writer, ExcelModelEntity entity, ExportHelper.ExportPageHandler<T> handler, PageQuery query) {
+    private static void writePages(ExcelWriter writer, ExcelModelEntity entity, String sheetName, ExportPageFetcher fetcher, ExportJobContext ctx) {
         // 每一个工作簿可写入的数据量，需要把表头所占的行算上
         long sheetTotal = 1;
         // 工作簿编号
         int sheetNum = 1;
-        // 页码
-        int pageIndex = 1;
-        query.setPageIndex(pageIndex);
-        // 分页条数
-        query.setPageSize(query.getExportPageSize() == null ? DEFAULT_PAGE_SIZE : query.getExportPageSize());
-        // 不查询 Count
-        query.setSearchCount(false);
-
-        WriteSheet writeSheet = EasyExcel.writerSheet(entity.getSheetName())
-                .registerWriteHandler(new ExcelCellStyleStrategy(entity.getAlignmentList()))
-                .registerWriteHandler(new WidthStyleStrategy(entity.getWidthList()))
-                .registerWriteHandler(new SimpleRowHeightStyleStrategy((short) entity.getTitleHeight(), (short) entity.getContentHeight()))
-                .head(entity.getHeadList()).build();
 
+        WriteSheet writeSheet = getWriteSheet(entity, sheetName);
+        ExportPage page;
         do {
-            PageResultVO<T> pageResult = handler.page();
-            List<T> list = pageResult.getRows();
-            writer.write(getDataList(list, entity.getExcludeFieldList()), writeSheet);
-            if (list.isEmpty()) {
+            // 页与页之间检查取消、超时和最大行数
+            ctx.getHandle().check(ctx.getProgress().getRowCount().get());
+            page = fetcher.next();
+            long start = System.nanoTime();
+            writer.write(page.getDataList(), writeSheet);
+            ctx.getMetrics().recordEncode(System.nanoTime() - start);
+            releasePage(ctx, page);
+            ctx.getProgress().onPage(page.getRowCount(), sheetNum);
+            if (page.getRowCount() == 0) {
                 break;
             }
 
             // 条数大于Excel Sheet最大行数时，增加新的Sheet
-            sheetTotal += list.size();
+            sheetTotal += page.getRowCount();
             if (sheetTotal >= SHEET_MAX) {
                 sheetNum++;
-                writeSheet = EasyExcel.writerSheet(entity.getSheetName() + "-" + sheetNum).head(entity.getHeadList()).build();
+                String suffix = "-" + sheetNum;
+                writeSheet = EasyExcel.writerSheet(StringUtils.left(sheetName, SHEET_NAME_MAX - suffix.length()) + suffix).head(entity.getHeadList()).build();
                 sheetTotal = 1;
             }
+        } while (!page.isLast());
+    }
 
-            if (list.size() < query.getPageSize()) {
-                // 查询结果数据量小于分页数量，处理结束
-                break;
+    /**
+     * 创建带表头、列宽、对齐方式和行高样式的Sheet页
+     *
+     * @param entity    导出参数实体，包含Excel配置信息
+     * @param sheetName Sheet名称
+     * @return WriteSheet
+     */
+    private static WriteSheet getWriteSheet(ExcelModelEntity entity, String sheetName) {
+        return EasyExcel.writerSheet(sheetName)
+                .registerWriteHandler(new ExcelCellStyleStrategy(entity.getAlignmentList()))
+                .registerWriteHandler(new WidthStyleStrategy(entity.getWidthList()))
+                .registerWriteHandler(new SimpleRowHeightStyleStrategy((short) entity.getTitleHeight(), (short) entity.getContentHeight()))
+                .head(entity.getHeadList()).build();
+    }
+
+    /**
+     * 创建OFFSET分页获取函数，每页页码 + 1；开启自适应分页时按偏移量换算页码
+     *
+     * @param ctx     导出任务上下文
+     * @param handler 分页查询处理器
+     * @param query   分页查询条件，包含分页参数
+     * @return 分页获取函数
+     */
+    static <T> ExportPageFetcher getOffsetPageFetcher(ExportJobContext ctx, ExportHelper.ExportPageHandler<T> handler, PageQuery query) {
+        // 页码
+        query.setPageIndex(1);
+        ExportBatchSizer sizer = getBatchSizer(ctx);
+        // 分页条数
+        int pageSize = query.getExportPageSize() == null ? DEFAULT_PAGE_SIZE : query.getExportPageSize();
+        query.setPageSize(sizer == null ? pageSize : sizer.initialPageSize(pageSize));
+        // 不查询 Count
+        query.setSearchCount(false);
+        return () -> {
+            long reserved = ctx.getMemory().reserve(query.getPageSize());
+            long start = System.nanoTime();
+            PageResultVO<T> pageResult = handler.page();
+            long queryNanos = System.nanoTime() - start;
+            ctx.getMetrics().recordQuery(queryNanos);
+            List<T> list = pageResult.getRows();
+            // 查询结果为空或数据量小于分页数量，处理结束
+            boolean last = list.isEmpty() || list.size() < query.getPageSize();
+            ExportPage page = toExportPage(ctx, list, last, reserved);
+            if (!last) {
+                // 下一页的偏移量，换算成新分页条数下的页码
+                long offset = (long) query.getPageIndex() * query.getPageSize();
+                int nextPageSize = nextPageSize(sizer, query.getPageSize(), offset, page, queryNanos);
+                query.setPageSize(nextPageSize);
+                query.setPageIndex((int) (offset / nextPageSize) + 1);
             }
+            return page;
+        };
+    }
 
-            // 页码 + 1
-            query.setPageIndex(++pageIndex);
-        } while (true);
+    /**
+     * 创建游标分页获取函数，每页以上一页返回的key继续查询
+     *
+     * @param ctx        导出任务上下文
+     * @param handler    游标分页查询处理器
+     * @param query      分页查询条件，取exportPageSize作为分页条数
+     * @param projection 导出列投影
+     * @return 分页获取函数
+     */
+    private static <T, K> ExportPageFetcher getCursorPageFetcher(ExportJobContext ctx, ExportCursorPageHandler<T, K> handler, PageQuery query, ExportProjection projection) {
+        ExportBatchSizer sizer = getBatchSizer(ctx);
+        int configuredSize = query.getExportPageSize() == null ? DEFAULT_PAGE_SIZE : query.getExportPageSize();
+        AtomicInteger pageSize = new AtomicInteger(sizer == null ? configuredSize : sizer.initialPageSize(configuredSize));
+        // 上一页最后一条记录的key
+        AtomicReference<K> lastKey = new AtomicReference<>();
+        return () -> {
+            long reserved = ctx.getMemory().reserve(pageSize.get());
+            long start = System.nanoTime();
+            ExportCursorPage<T, K> cursorPage = handler.page(lastKey.get(), pageSize.get(), projection);
+            long queryNanos = System.nanoTime() - start;
+            ctx.getMetrics().recordQuery(queryNanos);
+            List<T> list = cursorPage.getRows() == null ? Collections.emptyList() : cursorPage.getRows();
+            // 查询结果数据量小于分页数量或没有下一页key，处理结束
+            boolean last = list.size() < pageSize.get() || cursorPage.getNextKey() == null;
+            lastKey.set(cursorPage.getNextKey());
+            ExportPage page = toExportPage(ctx, list, last, reserved);
+            // 游标分页不受偏移量约束，可任意切换条数
+            pageSize.set(nextPageSize(sizer, pageSize.get(), 0, page, queryNanos));
+            return page;
+        };
+    }
 
-        if (CollectionUtils.isNotEmpty(entity.getSecondSheetList())) {
-            Class<?> otherClazz = entity.getSecondSheetList().get(0).getClass();
-            ExcelModelEntity otherEntity = extractExcelModel(otherClazz);
-            WriteSheet writeSheet2 = EasyExcel.writerSheet(otherEntity.getSheetName())
-                    .registerWriteHandler(new ExcelCellStyleStrategy(otherEntity.getAlignmentList()))
-                    .registerWriteHandler(new WidthStyleStrategy(otherEntity.getWidthList()))
-                    .registerWriteHandler(new SimpleRowHeightStyleStrategy((short) otherEntity.getTitleHeight(), (short) otherEntity.getContentHeight()))
-                    .head(otherEntity.getHeadList()).build();
-            writer.write(getDataList(entity.getSecondSheetList()), writeSheet2);
+    /**
+     * 创建分区分页获取函数，分区内按页码分页；开启自适应分页时按偏移量换算页码
+     *
+     * @param ctx         导出任务上下文
+     * @param partitioner 数据分区器
+     * @param partition   分区
+     * @param pageSize    分页条数
+     * @param projection  导出列投影
+     * @return 分页获取函数
+     */
+    private static <T, P> ExportPageFetcher getPartitionPageFetcher(ExportJobContext ctx, ExportPartitioner<T, P> partitioner, P partition, int pageSize,
+                                                                    ExportProjection projection) {
+        // 每个分区独立调整，分区之间的数据分布可能不同
+        ExportBatchSizer sizer = getBatchSizer(ctx);
+        AtomicInteger pageIndex = new AtomicInteger(1);
+        AtomicInteger currentSize = new AtomicInteger(sizer == null ? pageSize : sizer.initialPageSize(pageSize));
+        return () -> {
+            int size = currentSize.get();
+            long reserved = ctx.getMemory().reserve(size);
+            long start = System.nanoTime();
+            List<T> list = partitioner.page(partition, pageIndex.get(), size, projection);
+            long queryNanos = System.nanoTime() - start;
+            ctx.getMetrics().recordQuery(queryNanos);
+            if (list == null) {
+                list = Collections.emptyList();
+            }
+            boolean last = list.size() < size;
+            ExportPage page = toExportPage(ctx, list, last, reserved);
+            long offset = (long) pageIndex.get() * size;
+            int nextPageSize = nextPageSize(sizer, size, offset, page, queryNanos);
+            currentSize.set(nextPageSize);
+            pageIndex.set((int) (offset / nextPageSize) + 1);
+            return page;
+        };
+    }
+
+    /**
+     * 创建自适应分页控制器，未开启时返回null
+     *
+     * @param ctx 导出任务上下文
+     * @return 自适应分页控制器
+     */
+    private static ExportBatchSizer getBatchSizer(ExportJobContext ctx) {
+        return ctx.getOptions().isAdaptivePageSize() ? new ExportBatchSizer(ctx.getOptions(), ctx.getMemory()) : null;
+    }
+
+    /**
+     * 计算下一页条数，未开启自适应分页时不变
+     * <p>
+     * OFFSET分页的下一页偏移量须能整除新条数，否则保持原条数；控制器按2倍调整，通常在一两页内即可对齐
+     * </p>
+     *
+     * @param sizer      自适应分页控制器，可为null
+     * @param pageSize   当前分页条数
+     * @param offset     下一页的偏移量，游标分页传0
+     * @param page       当前页
+     * @param queryNanos 当前页查询耗时（纳秒）
+     * @return 下一页条数
+     */
+    private static int nextPageSize(ExportBatchSizer sizer, int pageSize, long offset, ExportPage page, long queryNanos) {
+        if (sizer == null) {
+            return pageSize;
         }
+        int next = sizer.next(pageSize, page.getRowCount(), queryNanos, page.getDataList());
+        return offset % next == 0 ? next : pageSize;
+    }
+
+    /**
+     * 转换一页数据，计入转换耗时和内存行数，并按实际数据修正预留的内存预算
+     *
+     * @param ctx      导出任务上下文
+     * @param list     分页数据
+     * @param last     是否最后一页
+     * @param reserved 查询前预留的内存预算（字节）
+     * @return 已转换的分页
+     */
+    private static <T> ExportPage toExportPage(ExportJobContext ctx, List<T> list, boolean last, long reserved) {
+        long start = System.nanoTime();
+        List<List<Object>> dataList = getDataList(list, ctx.getEntity().getExcludeFieldList());
+        ctx.getMetrics().recordConvert(System.nanoTime() - start);
+        ctx.getMetrics().onRowsLoaded(list.size());
+        return new ExportPage(dataList, list.size(), last, ctx.getMemory().settle(reserved, dataList));
+    }
+
+    /**
+     * 一页数据已写出，释放内存行数和内存预算
+     *
+     * @param ctx  导出任务上下文
+     * @param page 已写出的分页
+     */
+    private static void releasePage(ExportJobContext ctx, ExportPage page) {
+        ctx.getMetrics().onRowsReleased(page.getRowCount());
+        ctx.getMemory().release(page.getReservedBytes());
     }
 
     /**
@@ -285,73 +1573,48 @@ public class ExportHelper2 {
      * @param excludeFieldList 要排除的字段名列表
      * @return Excel数据格式的二维列表，外层List代表行，内层List代表列
      */
-    private static <T> List<List<Object>> getDataList(List<T> list, List<String> excludeFieldList) {
+    static <T> List<List<Object>> getDataList(List<T> list, List<String> excludeFieldList) {
         List<List<Object>> dataList = new ArrayList<>();
         if (CollectionUtils.isEmpty(list)) {
             return dataList;
         }
         Class<?> clazz = list.get(0).getClass();
-        List<Field> fieldList = extractSortFields(clazz.getDeclaredFields(), excludeFieldList, null);
-        list.forEach(t -> {
-            ExcelColumn excelColumn;
-            List<Object> dList = new ArrayList<>();
-            for (Field field : fieldList) {
-                excelColumn = field.getAnnotation(ExcelColumn.class);
-                try {
-                    field.setAccessible(true);
-                    Object o = field.get(t);
-                    dList.add(getFieldValue(field, excelColumn, o));
-                } catch (IllegalAccessException e) {
-                    dList.add("");
-                }
-            }
-            dataList.add(dList);
-        });
+        // 列访问器按类缓存，避免每页重复排序字段、每个单元格重复反射
+        List<ExcelColumnAccessor> accessorList = ExcelColumnAccessor.of(clazz, excludeFieldList, null);
+        Set<String> failedFields = new HashSet<>();
+        list.forEach(t -> dataList.add(getRowData(accessorList, t, failedFields)));
         return dataList;
     }
 
     /**
-     * 处理字段属性值，根据字段类型进行格式化转换
-     *
-     * @param field       字段反射对象
-     * @param excelColumn Excel列注解，包含格式化信息
-     * @param o           原始字段值
-     * @return 转换后的字段值，适合Excel显示
-     */
-    private static Object getFieldValue(Field field, ExcelColumn excelColumn, Object o) {
-        if (o == null) {
-            return "";
-        }
-        Object fieldValue;
-        String vType = field.getGenericType().getTypeName();
-        switch (vType) {
-            case "java.lang.String":
-                fieldValue = o;
-                if ("empNo".equalsIgnoreCase(field.getName()) || "emplid".equalsIgnoreCase(field.getName())) {
-                    // 工号纯数字时，转成数值类型（防止导出的单元格带警告）
-                    String v = (String) o;
-                    if (StringUtils.isNumeric(v) && !v.startsWith("0")) {
-                        try {
-                            fieldValue = new BigDecimal(v);
-                        } catch (Exception e) {
-                            // do nothing
-                        }
-                    }
-                }
-                break;
-            case "java.util.Date":
-                String pattern = excelColumn.dateTimeFormat();
-                if (StringUtils.isBlank(pattern)) {
-                    pattern = DateUtil.PATTERN_STANDARD10H;
+     * 将单个对象转换为Excel行数据
+     * <p>
+     * 单元格值转换失败（类型不匹配、格式化失败）时留空并记录日志，同一页内每个字段只记录一次；
+     * Error 和其他异常不吞掉，由导出任务记录为失败
+     * </p>
+     *
+     * @param accessorList 列访问器列表
+     * @param t            数据对象
+     * @param failedFields 本页已记录过转换失败的字段
+     * @return 行数据，按列顺序排列
+     */
+    private static List<Object> getRowData(List<ExcelColumnAccessor> accessorList, Object t, Set<String> failedFields) {
+        List<Object> dList = new ArrayList<>(accessorList.size());
+        for (ExcelColumnAccessor accessor : accessorList) {
+            try {
+                dList.add(accessor.readCell(t));
+            } catch (ClassCastException | IllegalArgumentException | DateTimeException e) {
+                if (failedFields.add(accessor.getFieldName())) {
+                    log.warn("Convert excel cell error, class:{}, field:{}", t.getClass().getName(), accessor.getFieldName(), e);
                 }
-                fieldValue = DateUtil.date2String((Date) o, pattern);
-                break;
-            default:
-                fieldValue = o;
-                break;
+                dList.add("");
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException("Read field " + t.getClass().getName() + "." + accessor.getFieldName() + " failed.", e);
+            }
         }
-
-        return fieldValue;
+        return dList;
     }
 
     /**
@@ -360,7 +1623,7 @@ public class ExportHelper2 {
      * @param file 要写入的Excel文件
      * @return 配置好的ExcelWriter对象
      */
-    private static ExcelWriter getExcelWriter(File file) {
+    static ExcelWriter getExcelWriter(File file) {
         return new ExcelWriterBuilder()
                 .autoCloseStream(true)
                 .automaticMergeHead(false)
@@ -370,23 +1633,54 @@ public class ExportHelper2 {
     }
 
     /**
-     * 创建临时Excel文件
+     * 创建写入输出流的Excel写入器，完成时自动关闭输出流
+     *
+     * @param outputStream 输出流
+     * @return 配置好的ExcelWriter对象
+     */
+    private static ExcelWriter getExcelWriter(OutputStream outputStream) {
+        return new ExcelWriterBuilder()
+                .autoCloseStream(true)
+                .automaticMergeHead(false)
+                .excelType(ExcelTypeEnum.XLSX)
+                .file(outputStream)
+                .build();
+    }
+
+    /**
+     * 创建导出任务写入的临时文件，写入期间临时空间不足时停止该任务
+     *
+     * @param ctx 导出任务上下文
+     * @param userId 用户ID，用于文件命名和隔离
+     * @param suffix 文件后缀，如 .xlsx、.zip
+     * @return 创建的临时文件，关闭时删除
+     * @throws SimpleException 当配额不足或创建文件失败时抛出
+     */
+    static ExportTempFile getTempFile(ExportJobContext ctx, String userId, String suffix) {
+        return exportTempStorage.allocate(ctx.getEntity().getTaskType() + "_" + userId + "_", suffix, ctx.getHandle());
+    }
+
+    /**
+     * 创建指定后缀的临时文件
      *
      * @param taskType 任务类型，用于文件命名
      * @param userId 用户ID，用于文件命名和隔离
-     * @return 创建的临时文件对象
-     * @throws SimpleException 当创建目录或文件失败时抛出
+     * @param suffix 文件后缀，如 .xlsx、.zip
+     * @return 创建的临时文件，关闭时删除
+     * @throws SimpleException 当配额不足或创建文件失败时抛出
      */
-    private static File getTempFile(String taskType, String userId) {
-        File tempDir = new File(TEMP_DIR_PATH);
-        if (!tempDir.exists() && !tempDir.mkdirs()) {
-            throw new SimpleException("Create template dir failed.");
-        }
-        try {
-            return FileUtil.createTempFile(taskType + "_" + userId + "_", ExcelTypeEnum.XLSX.getValue(), tempDir);
-        } catch (IOException e) {
-            throw new SimpleException("Create template file failed.", e);
-        }
+    static ExportTempFile getTempFile(String taskType, String userId, String suffix) {
+        return exportTempStorage.allocate(taskType + "_" + userId + "_", suffix, null);
+    }
+
+    /**
+     * 单个导入任务的工作执行器，共用调度器管理的导入线程池
+     *
+     * @param parallelism 单个任务的并行数
+     * @return 工作执行器，任务结束后须 shutdownNow
+     */
+    static ExportLimitedExecutor newImportExecutor(int parallelism) {
+        return exportScheduler.newImportExecutor(parallelism);
     }
 
     /**
@@ -417,7 +1711,7 @@ public class ExportHelper2 {
      * @param excludeFieldList 要排除的字段名列表
      * @return ExcelModelEntity 包含Excel配置信息的实体
      */
-    private static <T> ExcelModelEntity extractExcelModel(Class<T> clazz, List<String> excludeFieldList) {
+    static <T> ExcelModelEntity extractExcelModel(Class<T> clazz, List<String> excludeFieldList) {
         return extractExcelModel(clazz, excludeFieldList, null, false);
     }
 
@@ -431,6 +1725,28 @@ public class ExportHelper2 {
      * @return ExcelModelEntity 包含完整Excel配置信息的实体对象
      */
     private static <T> ExcelModelEntity extractExcelModel(Class<T> clazz, List<String> excludeFieldList, List<String> includeFieldList, boolean isExample) {
+        ExcelModel excelModel = clazz.getAnnotation(ExcelModel.class);
+        boolean cn = LanguageEnum.isCn();
+        if (cn ? StringUtils.isAllBlank(excelModel.fileName(), excelModel.sheetName())
+                : StringUtils.isAllBlank(excelModel.fileNameEn(), excelModel.sheetNameEn())) {
+            // 当前语言未配置名称时文件名带当前时间（见getFileName），不能缓存
+            return buildExcelModel(clazz, excludeFieldList, includeFieldList, isExample);
+        }
+        String lang = cn ? "cn" : "en";
+        return ExcelModelCache.get(clazz, excludeFieldList, includeFieldList, isExample, lang,
+                () -> buildExcelModel(clazz, excludeFieldList, includeFieldList, isExample));
+    }
+
+    /**
+     * 解析ExcelModel信息，返回的列表均不可修改，可作为缓存快照共享
+     *
+     * @param clazz            Excel模板模型类，必须有@ExcelModel注解
+     * @param excludeFieldList 要排除的字段名列表，与includeFieldList互斥
+     * @param includeFieldList 要包含的字段名列表，与excludeFieldList互斥
+     * @param isExample        是否包含样例数据和备注信息
+     * @return ExcelModelEntity 包含完整Excel配置信息的实体对象
+     */
+    private static <T> ExcelModelEntity buildExcelModel(Class<T> clazz, List<String> excludeFieldList, List<String> includeFieldList, boolean isExample) {
         // 获取 @ExcelColumn 标记字段，并按照index升序
         List<Field> fieldList = extractSortFields(clazz.getDeclaredFields(), excludeFieldList, includeFieldList);
 
@@ -472,12 +1788,13 @@ public class ExportHelper2 {
                 exampleList.add(LanguageEnum.isCn() ? excelColumn.example() : (StringUtils.isBlank(excelColumn.exampleEn()) ? excelColumn.example() : excelColumn.exampleEn()));
             }
         }
-        ExcelModelEntity entity = new ExcelModelEntity(taskType, fileName, sheetName, headList, widthList, titleHeight, contentHeight);
-        entity.setExcludeFieldList(excludeFieldList);
-        entity.setAlignmentList(alignmentList);
+        ExcelModelEntity entity = new ExcelModelEntity(taskType, fileName, sheetName,
+                Collections.unmodifiableList(headList), Collections.unmodifiableList(widthList), titleHeight, contentHeight);
+        entity.setExcludeFieldList(excludeFieldList == null ? null : Collections.unmodifiableList(new ArrayList<>(excludeFieldList)));
+        entity.setAlignmentList(Collections.unmodifiableList(alignmentList));
         // 提取样例
         if (isExample) {
-            entity.setExampleList(Collections.singletonList(exampleList));
+            entity.setExampleList(Collections.singletonList(Collections.unmodifiableList(exampleList)));
             entity.setRemark(LanguageEnum.isCn() ? excelModel.remark() : (StringUtils.isBlank(excelModel.remarkEn()) ? excelModel.remark() : excelModel.remarkEn()));
             entity.setRemarkHeight(excelModel.remarkHeight());
         }
@@ -539,6 +1856,20 @@ public class ExportHelper2 {
         return fileName;
     }
 
+    /**
+     * 替换文件后缀
+     *
+     * @param fileName 文件名，如 用户列表.xlsx
+     * @param suffix   新后缀，如 .csv
+     * @return 替换后缀后的文件名
+     */
+    private static String changeFileSuffix(String fileName, String suffix) {
+        if (fileName.endsWith(suffix)) {
+            return fileName;
+        }
+        return StringUtils.substringBeforeLast(fileName, ".") + suffix;
+    }
+
     /**
      * 获取Excel工作表名称
      *
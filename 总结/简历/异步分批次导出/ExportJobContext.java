@@ -0,0 +1,128 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+import com.oppo.corehrpt.basic.export.entity.ExcelModelEntity;
+import com.oppo.corehrpt.basic.export.entity.ExportOptions;
+import lombok.Getter;
+
+/**
+ * 单次导出任务的上下文，贯穿查询、写入、上传各阶段
+ */
+@Getter
+public class ExportJobContext {
+
+    /** 导出记录ID */
+    private final long exportRecordId;
+
+    /** 导出参数实体，包含Excel配置信息 */
+    private final ExcelModelEntity entity;
+
+    /** 导出选项 */
+    private final ExportOptions options;
+
+    /** 导出进度 */
+    private final ExportProgress progress;
+
+    /** 分阶段耗时统计 */
+    private final ExportMetrics metrics;
+
+    /** 本任务持有的内存预算 */
+    private final ExportMemoryLease memory;
+
+    /** 取消标记和执行限制 */
+    private final ExportJobHandle handle;
+
+    /** 导入成功行数，非导入任务为null */
+    private volatile Long importSuccessCount;
+
+    /** 导入失败行数，非导入任务为null */
+    private volatile Long importErrorCount;
+
+    /** 增量导出的数据集key，非增量导出为null */
+    private volatile String watermarkKey;
+
+    /** 增量导出的起始水位（不含），首次增量导出为null */
+    private volatile String watermarkFrom;
+
+    /** 增量导出的结束水位（含），非增量导出为null */
+    private volatile String watermarkTo;
+
+    public ExportJobContext(long exportRecordId, ExcelModelEntity entity, ExportOptions options) {
+        this(exportRecordId, entity, options, null);
+    }
+
+    /**
+     * @param exportRecordId 导出记录ID
+     * @param entity         导出参数实体
+     * @param options        导出选项
+     * @param memoryBudget   全局导出内存预算，为null时不限流
+     */
+    public ExportJobContext(long exportRecordId, ExcelModelEntity entity, ExportOptions options, ExportMemoryBudget memoryBudget) {
+        this(exportRecordId, entity, options, memoryBudget, new ExportJobHandle(exportRecordId));
+    }
+
+    /**
+     * @param exportRecordId 导出记录ID
+     * @param entity         导出参数实体
+     * @param options        导出选项
+     * @param memoryBudget   全局导出内存预算，为null时不限流
+     * @param handle         排队时已登记的任务句柄，排队期间可被取消
+     */
+    public ExportJobContext(long exportRecordId, ExcelModelEntity entity, ExportOptions options, ExportMemoryBudget memoryBudget, ExportJobHandle handle) {
+        this(exportRecordId, entity, options, new ExportProgress(exportRecordId, options.getEstimatedTotalRows()),
+                new ExportMetrics(entity.getTaskType()), new ExportMemoryLease(memoryBudget), handle);
+    }
+
+    private ExportJobContext(long exportRecordId, ExcelModelEntity entity, ExportOptions options, ExportProgress progress,
+                             ExportMetrics metrics, ExportMemoryLease memory, ExportJobHandle handle) {
+        this.exportRecordId = exportRecordId;
+        this.entity = entity;
+        this.options = options;
+        this.progress = progress;
+        this.metrics = metrics;
+        this.memory = memory;
+        this.handle = handle;
+    }
+
+    /**
+     * 设置导入结果，导入结束时写入导入记录
+     *
+     * @param successCount 成功行数
+     * @param errorCount   失败行数
+     */
+    public void setImportResult(long successCount, long errorCount) {
+        this.importSuccessCount = successCount;
+        this.importErrorCount = errorCount;
+    }
+
+    /**
+     * 设置增量导出的水位区间，导出结束时写入导出记录
+     *
+     * @param watermarkKey  数据集key
+     * @param watermarkFrom 起始水位（不含），可为null
+     * @param watermarkTo   结束水位（含）
+     */
+    public void setWatermarkRange(String watermarkKey, String watermarkFrom, String watermarkTo) {
+        this.watermarkKey = watermarkKey;
+        this.watermarkFrom = watermarkFrom;
+        this.watermarkTo = watermarkTo;
+    }
+
+    /**
+     * 创建写入其他Sheet页的上下文，除Excel配置外其余共用
+     *
+     * @param sheetEntity Sheet页的Excel配置信息
+     * @return 新的上下文
+     */
+    public ExportJobContext withEntity(ExcelModelEntity sheetEntity) {
+        return new ExportJobContext(exportRecordId, sheetEntity, options, progress, metrics, memory, handle);
+    }
+
+    /**
+     * 创建共用耗时统计、内存预算和取消标记，进度独立的上下文，用于已计入进度的数据再次写出（如中间文件编码）
+     *
+     * @return 新的上下文
+     */
+    public ExportJobContext withDetachedProgress() {
+        return new ExportJobContext(exportRecordId, entity, options, new ExportProgress(exportRecordId, options.getEstimatedTotalRows()), metrics, memory, handle);
+    }
+}
@@ -0,0 +1,138 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+import lombok.Getter;
+
+/**
+ * 运行中导出任务的句柄，持有取消标记和执行限制，导出线程在页与页之间检查
+ */
+@Getter
+public class ExportJobHandle {
+
+    /** 导出记录ID */
+    private final long exportRecordId;
+
+    /** 开始时间（毫秒），排队的任务在开始执行时重置，排队时间不计入最长执行时间 */
+    private volatile long startTime = System.currentTimeMillis();
+
+    /** 最长执行时间（毫秒），0不限制 */
+    private volatile long maxDurationMillis;
+
+    /** 最大行数，0不限制 */
+    private volatile long maxRows;
+
+    /** 取消原因，为null时未取消 */
+    private volatile String cancelReason;
+
+    /** 任务已失败，其余并行分区停止执行，不计为取消 */
+    private volatile boolean aborted;
+
+    /** 失败原因 */
+    private volatile String abortReason;
+
+    /** 集群队列任务的租约已被其他节点接管，停止执行且不再更新导出记录 */
+    private volatile boolean detached;
+
+    /** 集群队列任务的认领节点，结束时只在仍持有租约时更新导出记录；非队列任务为null */
+    private volatile String leaseOwner;
+
+    public ExportJobHandle(long exportRecordId) {
+        this.exportRecordId = exportRecordId;
+    }
+
+    /**
+     * 设置执行限制
+     *
+     * @param maxDurationMillis 最长执行时间（毫秒），0不限制
+     * @param maxRows           最大行数，0不限制
+     */
+    public void setLimits(long maxDurationMillis, long maxRows) {
+        this.maxDurationMillis = maxDurationMillis;
+        this.maxRows = maxRows;
+    }
+
+    /**
+     * 排队的任务开始执行，从此时开始计算最长执行时间
+     */
+    public void start() {
+        startTime = System.currentTimeMillis();
+    }
+
+    /**
+     * 请求取消，导出线程在下一页之前停止
+     *
+     * @param reason 取消原因
+     */
+    public void cancel(String reason) {
+        if (cancelReason == null) {
+            cancelReason = reason;
+        }
+    }
+
+    /**
+     * 任务已失败，通知其余并行分区在下一页之前停止
+     */
+    public void abort() {
+        abort("Export aborted.");
+    }
+
+    /**
+     * 任务因外部原因失败（如临时文件空间不足），导出线程在下一页之前停止，导出记录标记为失败
+     *
+     * @param reason 失败原因
+     */
+    public void abort(String reason) {
+        if (abortReason == null) {
+            abortReason = reason;
+        }
+        aborted = true;
+    }
+
+    /**
+     * 标记为集群队列任务
+     *
+     * @param leaseOwner 认领节点标识
+     */
+    public void setLeaseOwner(String leaseOwner) {
+        this.leaseOwner = leaseOwner;
+    }
+
+    /**
+     * 租约已被其他节点接管，导出线程在下一页之前停止，导出记录由新的执行节点更新
+     */
+    public void detach() {
+        detached = true;
+    }
+
+    /**
+     * 是否已取消
+     *
+     * @return 已取消返回true
+     */
+    public boolean isCancelled() {
+        return cancelReason != null;
+    }
+
+    /**
+     * 检查是否需要停止：已取消、超时或超出最大行数
+     *
+     * @param rowCount 已写入行数
+     * @throws ExportCancelledException 需要停止时抛出
+     */
+    public void check(long rowCount) {
+        if (cancelReason == null && maxDurationMillis > 0 && System.currentTimeMillis() - startTime > maxDurationMillis) {
+            cancel("Export timed out after " + maxDurationMillis / 1000 + " seconds.");
+        }
+        if (cancelReason == null && maxRows > 0 && rowCount > maxRows) {
+            cancel("Export exceeded the maximum of " + maxRows + " rows.");
+        }
+        if (cancelReason != null) {
+            throw new ExportCancelledException(cancelReason);
+        }
+        if (aborted) {
+            throw new ExportCancelledException(abortReason);
+        }
+        if (detached) {
+            throw new ExportCancelledException("Export lease lost.");
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+import com.oppo.corehrpt.basic.config.ExportSchedulerConfig;
+import com.oppo.gcommon.starter.base.exception.SimpleException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 未结束导出任务登记表，key: 导出记录ID
+ * <p>
+ * 任务提交时登记并按任务类型设置最长执行时间、最大行数，结束时移除；排队中的任务被取消后，开始执行时立即结束
+ * </p>
+ */
+@Slf4j
+@Component
+public class ExportJobRegistry {
+
+    @Resource
+    private ExportSchedulerConfig exportSchedulerConfig;
+
+    /** 排队中和运行中的任务，value: 任务句柄和发起人 */
+    private final Map<Long, RunningJob> runningJobs = new ConcurrentHashMap<>();
+
+    /**
+     * 登记排队中或运行中的任务
+     *
+     * @param handle      任务句柄
+     * @param taskType    任务类型
+     * @param userAccount 发起人账号
+     */
+    public void register(ExportJobHandle handle, String taskType, String userAccount) {
+        long maxDurationSeconds = getLimit(exportSchedulerConfig.getTaskMaxDurationSeconds(), taskType, exportSchedulerConfig.getMaxDurationSeconds());
+        long maxRows = getLimit(exportSchedulerConfig.getTaskMaxRows(), taskType, exportSchedulerConfig.getMaxRows());
+        handle.setLimits(TimeUnit.SECONDS.toMillis(maxDurationSeconds), maxRows);
+        runningJobs.put(handle.getExportRecordId(), new RunningJob(handle, userAccount));
+    }
+
+    /**
+     * 移除任务
+     *
+     * @param exportRecordId 导出记录ID
+     */
+    public void unregister(long exportRecordId) {
+        runningJobs.remove(exportRecordId);
+    }
+
+    /**
+     * 取消排队中或运行中的任务，只有发起人可以取消
+     *
+     * @param exportRecordId 导出记录ID
+     * @param userAccount    操作人账号
+     * @return 任务未结束并已请求取消返回true，任务不存在或已结束返回false
+     * @throws SimpleException 操作人不是发起人时抛出
+     */
+    public boolean cancel(long exportRecordId, String userAccount) {
+        RunningJob job = runningJobs.get(exportRecordId);
+        if (job == null) {
+            return false;
+        }
+        if (!job.userAccount.equals(userAccount)) {
+            throw new SimpleException("Only the creator can cancel the export task.");
+        }
+        log.info("Cancel export, exportRecordId:{}, operator:{}", exportRecordId, userAccount);
+        job.handle.cancel("Cancelled by " + userAccount + ".");
+        return true;
+    }
+
+    private static long getLimit(Map<String, Long> taskLimits, String taskType, long defaultLimit) {
+        Long limit = taskLimits == null ? null : taskLimits.get(taskType);
+        return limit == null ? defaultLimit : limit;
+    }
+
+    private static final class RunningJob {
+        private final ExportJobHandle handle;
+        private final String userAccount;
+
+        private RunningJob(ExportJobHandle handle, String userAccount) {
+            this.handle = handle;
+            this.userAccount = userAccount;
+        }
+    }
+}
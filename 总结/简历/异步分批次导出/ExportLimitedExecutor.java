@@ -0,0 +1,218 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 共享线程池上的单任务并发限制
+ * <p>
+ * 按提交顺序最多同时向共享线程池提交 maxParallel 个任务，其余在本地排队，前面的任务结束后再提交下一个。
+ * 共享线程池按FIFO执行，同一任务先提交的总是先开始，写入线程按顺序消费时不会因后面的任务占满线程而卡死。
+ * 共享线程池拒绝（如应用关闭）时，未执行的任务被取消，等待方不会一直阻塞
+ * </p>
+ */
+public class ExportLimitedExecutor extends AbstractExecutorService {
+
+    private final Executor delegate;
+
+    private final int maxParallel;
+
+    /** 使用显式锁而不是 synchronized，虚拟线程提交任务时不占用载体线程 */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition terminated = lock.newCondition();
+
+    /** 未提交到共享线程池的任务 */
+    private final Deque<Runnable> pending = new ArrayDeque<>();
+
+    /** 已提交到共享线程池、未结束的任务数 */
+    private int active;
+
+    private boolean shutdown;
+
+    /**
+     * @param delegate    共享线程池，须按提交顺序执行任务，不能使用 CallerRunsPolicy
+     * @param maxParallel 最多同时执行的任务数
+     */
+    public ExportLimitedExecutor(Executor delegate, int maxParallel) {
+        this.delegate = delegate;
+        this.maxParallel = Math.max(1, maxParallel);
+    }
+
+    /**
+     * 异步执行，共享线程池拒绝导致任务未执行时返回的 CompletableFuture 以取消结束
+     *
+     * @param supplier 任务
+     * @return 任务结果
+     */
+    public <R> CompletableFuture<R> supply(Supplier<R> supplier) {
+        CompletableFuture<R> result = new CompletableFuture<>();
+        execute(new FutureTask<Void>(() -> {
+            try {
+                result.complete(supplier.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }, null) {
+            @Override
+            protected void done() {
+                if (isCancelled()) {
+                    result.cancel(false);
+                }
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        lock.lock();
+        try {
+            if (shutdown) {
+                throw new RejectedExecutionException("Executor has been shut down.");
+            }
+            pending.addLast(command);
+        } finally {
+            lock.unlock();
+        }
+        drain();
+    }
+
+    /**
+     * 在并发上限内按顺序提交本地排队的任务
+     */
+    private void drain() {
+        while (true) {
+            Runnable task;
+            lock.lock();
+            try {
+                if (active >= maxParallel || pending.isEmpty()) {
+                    return;
+                }
+                task = pending.pollFirst();
+                active++;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                delegate.execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        afterExecute();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // 共享线程池已关闭，剩余任务都无法执行
+                shutdownNow();
+                cancel(task);
+                afterExecute();
+                return;
+            }
+        }
+    }
+
+    private void afterExecute() {
+        lock.lock();
+        try {
+            active--;
+            if (shutdown && active == 0 && pending.isEmpty()) {
+                terminated.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+        drain();
+    }
+
+    private static void cancel(Runnable task) {
+        if (task instanceof Future) {
+            ((Future<?>) task).cancel(false);
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        lock.lock();
+        try {
+            shutdown = true;
+            if (active == 0 && pending.isEmpty()) {
+                terminated.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 停止接收任务，取消未提交到共享线程池的任务；已在执行的任务不会被中断，由任务自身的取消检查结束
+     *
+     * @return 未执行的任务
+     */
+    @Override
+    public List<Runnable> shutdownNow() {
+        List<Runnable> tasks;
+        lock.lock();
+        try {
+            shutdown = true;
+            tasks = new ArrayList<>(pending);
+            pending.clear();
+            if (active == 0) {
+                terminated.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+        tasks.forEach(ExportLimitedExecutor::cancel);
+        return tasks;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        lock.lock();
+        try {
+            return shutdown;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isTerminated() {
+        lock.lock();
+        try {
+            return shutdown && active == 0 && pending.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            while (!(shutdown && active == 0 && pending.isEmpty())) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = terminated.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
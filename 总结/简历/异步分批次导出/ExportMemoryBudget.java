@@ -0,0 +1,157 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+import com.oppo.corehrpt.basic.config.ExportSchedulerConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 导出内存预算
+ * <p>
+ * 所有导出任务共用，每次查询一页前按估算字节数预留，写出后释放；预算不足时查询线程阻塞等待，
+ * 配合自适应分页按剩余预算缩小分页。等待超过 memoryWaitSeconds 后超额放行，保证不会因互相持有预算而卡死，
+ * 超额放行记录日志并计入 export.memory.budget.overcommit 指标；等待期间线程被中断时不预留，抛出异常停止导出
+ * </p>
+ */
+@Slf4j
+@Component
+public class ExportMemoryBudget {
+
+    @Resource
+    private ExportSchedulerConfig exportSchedulerConfig;
+
+    /** 预算上限（字节） */
+    private long capacity;
+
+    /** 最长等待时间（纳秒） */
+    private long maxWaitNanos;
+
+    /** 已预留字节数 */
+    private long used;
+
+    /** 等待预算的线程数 */
+    private int waiting;
+
+    /** 使用显式锁而不是 synchronized，虚拟线程等待预算时不占用载体线程 */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition released = lock.newCondition();
+
+    /** 等待超时后超额放行的次数 */
+    private Counter overcommitCounter;
+
+    @PostConstruct
+    public void init() {
+        capacity = exportSchedulerConfig.getMemoryBudgetMb() <= 0
+                ? Runtime.getRuntime().maxMemory() / 5 : exportSchedulerConfig.getMemoryBudgetMb() * 1024 * 1024;
+        maxWaitNanos = TimeUnit.SECONDS.toNanos(exportSchedulerConfig.getMemoryWaitSeconds());
+        Gauge.builder("export.memory.budget.used", this, ExportMemoryBudget::getUsed).baseUnit("bytes").register(Metrics.globalRegistry);
+        Gauge.builder("export.memory.budget.capacity", this, b -> b.capacity).baseUnit("bytes").register(Metrics.globalRegistry);
+        Gauge.builder("export.memory.budget.waiting", this, ExportMemoryBudget::getWaiting).register(Metrics.globalRegistry);
+        overcommitCounter = Counter.builder("export.memory.budget.overcommit").register(Metrics.globalRegistry);
+    }
+
+    /**
+     * 预留内存，预算不足时阻塞等待；预算空闲时大于上限的请求也会放行
+     *
+     * @param bytes 字节数
+     * @throws ExportCancelledException 等待期间线程被中断时抛出，不预留
+     */
+    public void acquire(long bytes) {
+        long remaining = maxWaitNanos;
+        lock.lock();
+        try {
+            waiting++;
+            try {
+                while (used > 0 && used + bytes > capacity) {
+                    if (remaining <= 0) {
+                        log.warn("Export memory budget exhausted, admit over budget, used:{}, request:{}, capacity:{}", used, bytes, capacity);
+                        overcommitCounter.increment();
+                        break;
+                    }
+                    remaining = released.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ExportCancelledException("Export interrupted while waiting for memory budget.");
+            } finally {
+                waiting--;
+            }
+            used += bytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 不等待直接预留，用于按实际数据修正已预留的字节数
+     *
+     * @param bytes 字节数
+     */
+    public void forceAcquire(long bytes) {
+        lock.lock();
+        try {
+            used += bytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 释放内存
+     *
+     * @param bytes 字节数
+     */
+    public void release(long bytes) {
+        if (bytes <= 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            used = Math.max(0, used - bytes);
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 剩余预算
+     *
+     * @return 字节数
+     */
+    public long available() {
+        lock.lock();
+        try {
+            return Math.max(0, capacity - used);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getUsed() {
+        lock.lock();
+        try {
+            return used;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getWaiting() {
+        lock.lock();
+        try {
+            return waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 单次导出任务持有的内存预算
+ * <p>
+ * 查询前按 分页条数 × 单行字节数 预留，转换后按实际数据修正，写出后释放；任务结束时释放剩余部分。
+ * 单行字节数在第一页之前取默认值，之后按转换后的数据滑动估算。未配置全局预算时只做估算不限流
+ * </p>
+ */
+public class ExportMemoryLease {
+
+    /** 第一页之前的单行字节数估算值 */
+    private static final double DEFAULT_ROW_BYTES = 1024;
+
+    /** 单行字节数滑动平均的新样本权重 */
+    private static final double ROW_BYTES_WEIGHT = 0.3;
+
+    /** 全局内存预算，可为null */
+    private final ExportMemoryBudget budget;
+
+    /** 本任务已预留的字节数 */
+    private final AtomicLong held = new AtomicLong();
+
+    /** 估算的单行字节数 */
+    private volatile double rowBytes = DEFAULT_ROW_BYTES;
+
+    /** 是否已有实际数据样本 */
+    private volatile boolean sampled;
+
+    public ExportMemoryLease(ExportMemoryBudget budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * 查询一页前预留内存，预算不足时阻塞
+     *
+     * @param pageSize 分页条数
+     * @return 预留的字节数
+     */
+    public long reserve(int pageSize) {
+        long bytes = (long) (pageSize * rowBytes);
+        if (budget != null) {
+            budget.acquire(bytes);
+        }
+        held.addAndGet(bytes);
+        return bytes;
+    }
+
+    /**
+     * 按转换后的实际数据修正预留
+     *
+     * @param reserved 查询前预留的字节数
+     * @param dataList 转换后的数据
+     * @return 修正后的字节数
+     */
+    public long settle(long reserved, List<List<Object>> dataList) {
+        if (!dataList.isEmpty()) {
+            long sample = ExportBatchSizer.estimateRowBytes(dataList.get(0));
+            rowBytes = sampled ? rowBytes * (1 - ROW_BYTES_WEIGHT) + sample * ROW_BYTES_WEIGHT : sample;
+            sampled = true;
+        }
+        long actual = (long) (dataList.size() * rowBytes);
+        if (actual < reserved) {
+            release(reserved - actual);
+        } else if (actual > reserved) {
+            held.addAndGet(actual - reserved);
+            if (budget != null) {
+                budget.forceAcquire(actual - reserved);
+            }
+        }
+        return actual;
+    }
+
+    /**
+     * 释放内存
+     *
+     * @param bytes 字节数
+     */
+    public void release(long bytes) {
+        if (bytes <= 0) {
+            return;
+        }
+        held.addAndGet(-bytes);
+        if (budget != null) {
+            budget.release(bytes);
+        }
+    }
+
+    /**
+     * 释放本任务剩余的全部预留，如预取队列中未写出的分页
+     */
+    public void releaseAll() {
+        long bytes = held.getAndSet(0);
+        if (budget != null) {
+            budget.release(bytes);
+        }
+    }
+
+    /**
+     * 全局剩余预算，未配置时返回 Long.MAX_VALUE
+     *
+     * @return 字节数
+     */
+    public long available() {
+        return budget == null ? Long.MAX_VALUE : budget.available();
+    }
+}
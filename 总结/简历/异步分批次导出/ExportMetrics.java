@@ -0,0 +1,181 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 单次导出任务的分阶段耗时统计
+ * <p>
+ * 查询（handler.page）、转换（getDataList）、编码（writer.write/finish）按页计时，上传按次计时，
+ * 实时记录到 Micrometer 全局注册表（按任务类型、阶段打标签），Timer 的 count/total/max 即每页耗时；
+ * 任务结束时再记录吞吐、字节数、内存峰值行数，并生成摘要写入导出记录
+ * </p>
+ */
+@Getter
+public class ExportMetrics {
+
+    private static final String METRIC_PHASE = "export.phase";
+    private static final String METRIC_QUEUE_WAIT = "export.queue.wait";
+    private static final String METRIC_BYTES = "export.bytes";
+    private static final String METRIC_ROWS_PER_SECOND = "export.rows.per.second";
+    private static final String METRIC_PEAK_ROWS = "export.rows.in.memory.peak";
+
+    private static final String TAG_TASK_TYPE = "taskType";
+    private static final String TAG_PHASE = "phase";
+
+    /** 任务类型 */
+    private final String taskType;
+
+    private final Timer queryTimer;
+    private final Timer convertTimer;
+    private final Timer encodeTimer;
+    private final Timer uploadTimer;
+
+    /** 各阶段累计耗时（纳秒） */
+    private final AtomicLong queryNanos = new AtomicLong();
+    private final AtomicLong convertNanos = new AtomicLong();
+    private final AtomicLong encodeNanos = new AtomicLong();
+    private final AtomicLong uploadNanos = new AtomicLong();
+
+    /** 排队等待时间（纳秒） */
+    private volatile long queueWaitNanos;
+
+    /** 输出字节数 */
+    private final AtomicLong bytes = new AtomicLong();
+
+    /** 已转换、未写入的行数 */
+    private final AtomicLong rowsInMemory = new AtomicLong();
+
+    /** 已转换、未写入行数的峰值，预取时包括队列中的页 */
+    private final AtomicLong peakRowsInMemory = new AtomicLong();
+
+    public ExportMetrics(String taskType) {
+        this.taskType = taskType;
+        this.queryTimer = phaseTimer("query");
+        this.convertTimer = phaseTimer("convert");
+        this.encodeTimer = phaseTimer("encode");
+        this.uploadTimer = phaseTimer("upload");
+    }
+
+    /**
+     * 记录一页查询耗时
+     *
+     * @param nanos 耗时（纳秒）
+     */
+    public void recordQuery(long nanos) {
+        queryNanos.addAndGet(nanos);
+        queryTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录一页转换耗时
+     *
+     * @param nanos 耗时（纳秒）
+     */
+    public void recordConvert(long nanos) {
+        convertNanos.addAndGet(nanos);
+        convertTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录一次编码耗时（写入一页或完成文件）
+     *
+     * @param nanos 耗时（纳秒）
+     */
+    public void recordEncode(long nanos) {
+        encodeNanos.addAndGet(nanos);
+        encodeTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录上传耗时
+     *
+     * @param nanos 耗时（纳秒）
+     */
+    public void recordUpload(long nanos) {
+        uploadNanos.addAndGet(nanos);
+        uploadTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录开始执行前的排队等待时间
+     *
+     * @param nanos 等待时间（纳秒）
+     */
+    public void recordQueueWait(long nanos) {
+        this.queueWaitNanos = nanos;
+        Timer.builder(METRIC_QUEUE_WAIT).tag(TAG_TASK_TYPE, taskType).register(Metrics.globalRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 记录输出字节数
+     *
+     * @param size 字节数
+     */
+    public void recordBytes(long size) {
+        bytes.addAndGet(size);
+    }
+
+    /**
+     * 已转换一页数据，进入内存
+     *
+     * @param rows 行数
+     */
+    public void onRowsLoaded(int rows) {
+        long current = rowsInMemory.addAndGet(rows);
+        peakRowsInMemory.accumulateAndGet(current, Math::max);
+    }
+
+    /**
+     * 一页数据已写出，释放内存
+     *
+     * @param rows 行数
+     */
+    public void onRowsReleased(int rows) {
+        rowsInMemory.addAndGet(-rows);
+    }
+
+    /**
+     * 任务结束时记录吞吐、字节数和内存峰值行数
+     *
+     * @param progress 导出进度
+     */
+    public void publish(ExportProgress progress) {
+        summary(METRIC_ROWS_PER_SECOND).record(progress.getRowsPerSecond());
+        summary(METRIC_BYTES).record(bytes.get());
+        summary(METRIC_PEAK_ROWS).record(peakRowsInMemory.get());
+    }
+
+    /**
+     * 任务摘要，写入导出记录
+     *
+     * @param progress 导出进度
+     * @return 摘要，如 rows=10000, rowsPerSecond=5000, bytes=..., queueWaitMs=..., queryMs=..., ...
+     */
+    public String summary(ExportProgress progress) {
+        return "rows=" + progress.getRowCount().get()
+                + ", rowsPerSecond=" + progress.getRowsPerSecond()
+                + ", bytes=" + bytes.get()
+                + ", peakRowsInMemory=" + peakRowsInMemory.get()
+                + ", queueWaitMs=" + TimeUnit.NANOSECONDS.toMillis(queueWaitNanos)
+                + ", queryMs=" + TimeUnit.NANOSECONDS.toMillis(queryNanos.get())
+                + ", convertMs=" + TimeUnit.NANOSECONDS.toMillis(convertNanos.get())
+                + ", encodeMs=" + TimeUnit.NANOSECONDS.toMillis(encodeNanos.get())
+                + ", uploadMs=" + TimeUnit.NANOSECONDS.toMillis(uploadNanos.get());
+    }
+
+    private Timer phaseTimer(String phase) {
+        return Timer.builder(METRIC_PHASE).tag(TAG_TASK_TYPE, taskType).tag(TAG_PHASE, phase)
+                .register(Metrics.globalRegistry);
+    }
+
+    private DistributionSummary summary(String name) {
+        return DistributionSummary.builder(name).tag(TAG_TASK_TYPE, taskType).register(Metrics.globalRegistry);
+    }
+}
@@ -0,0 +1,162 @@
+package com.oppo.corehrpt.basic.export.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.oppo.corehrpt.basic.enums.ExportFormatEnum;
+import com.oppo.corehrpt.basic.enums.ExportPartitionOutputEnum;
+import com.oppo.corehrpt.basic.export.helper.ExportSheetSource;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 异步导出选项
+ */
+@Data
+@Accessors(chain = true)
+public class ExportOptions {
+
+    /**
+     * 预取页数<br/>
+     * <p>
+     * 0: 串行查询、写入（默认）
+     * 大于0: 查询线程提前查询并转换后续N页，与Excel写入并行，按页序写入
+     * </p>
+     */
+    private int prefetchDepth;
+
+    /**
+     * 分区导出并行数，0表示取 min(cpu数量, 8)
+     */
+    private int partitionParallelism;
+
+    /**
+     * 分区导出的输出方式，默认每个分区一个Sheet页
+     */
+    private ExportPartitionOutputEnum partitionOutput = ExportPartitionOutputEnum.SHEETS;
+
+    /**
+     * 是否流式上传<br/>
+     * <p>
+     * false: 先写入临时文件再上传（默认）
+     * true: Excel输出经有界管道直接上传到文件服务器，不落临时文件
+     * </p>
+     */
+    private boolean streamUpload;
+
+    /**
+     * 导出文件格式，默认XLSX；CSV格式不支持第二个Sheet页，分区导出仅支持XLSX
+     */
+    private ExportFormatEnum format = ExportFormatEnum.XLSX;
+
+    /**
+     * 是否合并重复请求<br/>
+     * <p>
+     * 开启后，相同任务类型、模型类、查询条件、字段过滤、格式、语言和用户的请求，
+     * 进行中时共用同一个导出任务，完成后在 reuseSeconds 内直接复用已上传的文件
+     * </p>
+     */
+    private boolean coalesce;
+
+    /**
+     * 合并key<br/>
+     * <p>
+     * 游标分页、列投影版本的过滤条件在处理器中，处理器为 lambda、匿名类时也可能捕获了查询条件之外的条件，
+     * 无法由查询条件判断两次导出是否相同，只有指定合并key时才合并；调用方须保证相同key的导出数据相同，如使用过滤条件的JSON
+     * </p>
+     */
+    private String coalesceKey;
+
+    /**
+     * 已完成结果的复用有效期（秒），0表示只合并进行中的请求
+     */
+    private int reuseSeconds;
+
+    /**
+     * 预估总行数，用于计算预计完成时间，可为null
+     */
+    private Long estimatedTotalRows;
+
+    /**
+     * 可续传导出的断点间隔页数，每查询N页保存一次断点
+     */
+    private int checkpointPages = 20;
+
+    /**
+     * 是否自适应分页条数<br/>
+     * <p>
+     * 开启后从配置的分页条数开始，按查询耗时、单行字节数和剩余堆内存逐页调整，限制在 [minPageSize, maxPageSize]
+     * </p>
+     */
+    private boolean adaptivePageSize;
+
+    /**
+     * 自适应分页条数下限
+     */
+    private int minPageSize = 100;
+
+    /**
+     * 自适应分页条数上限
+     */
+    private int maxPageSize = 10000;
+
+    /**
+     * 自适应分页的单页目标查询耗时（毫秒）
+     */
+    private long targetPageMillis = 1000;
+
+    /**
+     * 自适应分页的单页内存上限，占剩余堆内存的比例
+     */
+    private double pageHeapRatio = 0.02;
+
+    /**
+     * 是否在集群内分布式执行<br/>
+     * <p>
+     * 仅可续传导出支持：请求节点只在导出记录表中登记任务（查询条件JSON、任务类型），
+     * 由启用了 export-scheduler.queueEnabled 的节点按租约认领执行
+     * </p>
+     */
+    private boolean distributed;
+
+    /**
+     * 增量导出时忽略已保存的水位，导出当前水位之前的全部数据并重新记录水位
+     */
+    private boolean resetWatermark;
+
+    /**
+     * 增量导出的数据集key<br/>
+     * <p>
+     * 水位按 发起人 + 任务类型 + 查询条件JSON + 数据集key 的摘要保存，不同过滤条件的增量导出各自推进水位；
+     * 过滤条件在处理器中、不在查询条件里时，调用方须指定，如使用过滤条件的JSON
+     * </p>
+     */
+    private String watermarkKey;
+
+    /**
+     * 增量导出的水位安全延迟（秒）<br/>
+     * <p>
+     * 传给 ExportDeltaHandler.currentWatermark，时间类水位的上界取 min(当前最大值, 当前时间 - 延迟)，
+     * 须大于最长写事务的时长，否则提交较晚、时间较早的行会落在已导出的区间内而被漏掉
+     * </p>
+     */
+    private long watermarkLagSeconds = 60;
+
+    /**
+     * 附加Sheet页，按顺序写在主Sheet页之后，每页分页查询写入，不支持CSV、zip分区输出和可续传导出
+     */
+    @JsonIgnore
+    private List<ExportSheetSource<?>> extraSheets = new ArrayList<>();
+
+    /**
+     * 增加附加Sheet页
+     *
+     * @param sheet 附加Sheet页数据源
+     * @return this
+     */
+    public ExportOptions addSheet(ExportSheetSource<?> sheet) {
+        extraSheets.add(sheet);
+        return this;
+    }
+}
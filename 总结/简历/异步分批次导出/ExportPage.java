@@ -0,0 +1,30 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 已转换的导出分页数据
+ */
+@Getter
+@AllArgsConstructor
+public class ExportPage {
+
+    /** Excel行数据，外层List代表行，内层List代表列 */
+    private final List<List<Object>> dataList;
+
+    /** 本页查询到的记录数 */
+    private final int rowCount;
+
+    /** 是否最后一页 */
+    private final boolean last;
+
+    /** 本页占用的导出内存预算（字节），写出后释放 */
+    private final long reservedBytes;
+
+    public ExportPage(List<List<Object>> dataList, int rowCount, boolean last) {
+        this(dataList, rowCount, last, 0);
+    }
+}
@@ -0,0 +1,18 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+/**
+ * 导出分页获取函数，按页序查询并转换下一页数据
+ * <p>
+ * 同一次导出中只会在一个线程中按顺序调用
+ * </p>
+ */
+@FunctionalInterface
+public interface ExportPageFetcher {
+
+    /**
+     * 查询并转换下一页
+     *
+     * @return 已转换的分页数据
+     */
+    ExportPage next();
+}
@@ -0,0 +1,118 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+import com.oppo.corehrpt.basic.util.AsyncRequestTokenHelper;
+import com.oppo.gcommon.starter.base.bean.LoginUserBean;
+import com.oppo.gcommon.starter.base.context.UserContextHolder;
+import com.oppo.gcommon.starter.base.exception.SimpleException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.i18n.LocaleContextHolder;
+
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 导出分页预取器
+ * <p>
+ * 单个查询线程按页序查询、转换数据，放入有界队列；写入线程按顺序取出写入Excel。
+ * 队列满时查询线程阻塞，最多领先写入线程 prefetchDepth 页，导出耗时接近 max(查询, 写入)
+ * </p>
+ */
+@Slf4j
+public class ExportPagePrefetcher implements AutoCloseable {
+
+    /** 写入线程等待查询线程的检查间隔（毫秒） */
+    private static final long POLL_MILLIS = 500;
+
+    /** 已转换的分页，或查询线程抛出的异常 */
+    private final BlockingQueue<Object> queue;
+
+    private final Future<?> future;
+
+    private volatile boolean closed;
+
+    /**
+     * 创建并在指定线程池中启动预取
+     * <p>
+     * 查询线程池须独立于业务线程池，且不能使用 CallerRunsPolicy，否则查询回落到写入线程造成死锁
+     * </p>
+     *
+     * @param fetcher       分页获取函数，只会在查询线程中按顺序调用
+     * @param prefetchDepth 预取页数
+     * @param executor      查询线程池，须按提交顺序执行任务
+     * @throws java.util.concurrent.RejectedExecutionException 线程池拒绝时抛出，预取未启动
+     */
+    public ExportPagePrefetcher(ExportPageFetcher fetcher, int prefetchDepth, ExecutorService executor) {
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, prefetchDepth));
+        LoginUserBean loginUserBean = UserContextHolder.get();
+        Locale locale = LocaleContextHolder.getLocale();
+        this.future = executor.submit(() -> {
+            UserContextHolder.setUserInfo(loginUserBean);
+            LocaleContextHolder.setLocale(locale);
+            AsyncRequestTokenHelper.setLang(locale.toLanguageTag());
+            produce(fetcher);
+        });
+    }
+
+    /**
+     * 按页序获取下一页，查询线程异常时抛出
+     *
+     * @return 已转换的分页数据
+     */
+    public ExportPage take() {
+        try {
+            Object item;
+            do {
+                item = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (item == null && future.isDone() && queue.isEmpty()) {
+                    throw new SimpleException("Export prefetch stopped unexpectedly.");
+                }
+            } while (item == null);
+            if (item instanceof Throwable) {
+                throw new SimpleException("Export prefetch failed.", (Throwable) item);
+            }
+            return (ExportPage) item;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SimpleException("Export prefetch interrupted.", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        future.cancel(true);
+        queue.clear();
+    }
+
+    private void produce(ExportPageFetcher fetcher) {
+        try {
+            ExportPage page;
+            do {
+                page = fetcher.next();
+                if (!put(page)) {
+                    return;
+                }
+            } while (!page.isLast());
+        } catch (Throwable e) {
+            log.error("Export prefetch error", e);
+            put(e);
+        }
+    }
+
+    private boolean put(Object item) {
+        try {
+            while (!closed) {
+                if (queue.offer(item, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+}
@@ -0,0 +1,13 @@
+package com.oppo.corehrpt.basic.enums;
+
+/**
+ * 分区导出的输出方式
+ */
+public enum ExportPartitionOutputEnum {
+
+    /** 同一个工作簿，每个分区一个Sheet页（超出单Sheet最大行数时继续拆分） */
+    SHEETS,
+
+    /** 每个分区一个XLSX文件，打包成一个zip */
+    ZIP
+}
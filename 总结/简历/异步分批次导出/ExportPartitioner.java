@@ -0,0 +1,55 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+import java.util.List;
+
+/**
+ * 导出数据分区器
+ * <p>
+ * 将一次导出拆分为互不重叠的多个分区（如按部门、按ID区间），各分区并行查询、转换
+ * </p>
+ *
+ * @param <T> 数据模型类型
+ * @param <P> 分区类型，如部门编码、ID区间
+ */
+public interface ExportPartitioner<T, P> {
+
+    /**
+     * 拆分分区，返回顺序即Sheet页/文件的顺序
+     *
+     * @return 分区列表
+     */
+    List<P> partitions();
+
+    /**
+     * 分区名称，用于Sheet名或压缩包内的文件名
+     *
+     * @param partition 分区
+     * @return 分区名称
+     */
+    default String name(P partition) {
+        return String.valueOf(partition);
+    }
+
+    /**
+     * 查询分区内一页数据
+     *
+     * @param partition 分区
+     * @param pageIndex 页码，从1开始
+     * @param pageSize  分页条数
+     * @return 分页数据，数据量小于分页条数时视为最后一页
+     */
+    List<T> page(P partition, int pageIndex, int pageSize);
+
+    /**
+     * 按导出列投影查询分区内一页数据，分区器可覆盖此方法只查询导出的列，默认查询全部列
+     *
+     * @param partition  分区
+     * @param pageIndex  页码，从1开始
+     * @param pageSize   分页条数
+     * @param projection 导出列投影
+     * @return 分页数据，数据量小于分页条数时视为最后一页
+     */
+    default List<T> page(P partition, int pageIndex, int pageSize, ExportProjection projection) {
+        return page(partition, pageIndex, pageSize);
+    }
+}
@@ -0,0 +1,106 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+import com.oppo.gcommon.starter.base.bean.LoginUserBean;
+import com.oppo.gcommon.starter.base.context.UserContextHolder;
+import lombok.Getter;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 导出进度，写入线程每写完一页更新，由 ExportProgressReporter 定时合并写回导出记录
+ */
+@Getter
+public class ExportProgress {
+
+    /** 导出记录ID */
+    private final long exportRecordId;
+
+    /** 预估总行数，为null时不计算预计完成时间 */
+    private final Long estimatedTotalRows;
+
+    /** 导出发起人，写回导出记录时使用 */
+    private final LoginUserBean loginUserBean;
+
+    /** 开始时间（毫秒） */
+    private final long startTime = System.currentTimeMillis();
+
+    /** 已写入行数 */
+    private final AtomicLong rowCount = new AtomicLong();
+
+    /** 已写入页数 */
+    private final AtomicInteger pageCount = new AtomicInteger();
+
+    /** 当前Sheet页编号 */
+    private volatile int sheetNum = 1;
+
+    /** 上次写回后是否有更新 */
+    private volatile boolean dirty;
+
+    public ExportProgress(long exportRecordId, Long estimatedTotalRows) {
+        this.exportRecordId = exportRecordId;
+        this.estimatedTotalRows = estimatedTotalRows;
+        this.loginUserBean = UserContextHolder.get();
+    }
+
+    /**
+     * 记录已写入一页
+     *
+     * @param rows     本页行数
+     * @param sheetNum 当前Sheet页编号
+     */
+    public void onPage(int rows, int sheetNum) {
+        rowCount.addAndGet(rows);
+        pageCount.incrementAndGet();
+        this.sheetNum = sheetNum;
+        this.dirty = true;
+    }
+
+    /**
+     * 从断点恢复已写入的行数和页数
+     *
+     * @param rows  已写入行数
+     * @param pages 已写入页数
+     */
+    public void restore(long rows, int pages) {
+        rowCount.set(rows);
+        pageCount.set(pages);
+        this.dirty = true;
+    }
+
+    /**
+     * 取出并清除更新标记
+     *
+     * @return 上次写回后是否有更新
+     */
+    public boolean takeDirty() {
+        boolean d = dirty;
+        dirty = false;
+        return d;
+    }
+
+    /**
+     * 每秒写入行数
+     *
+     * @return 行数/秒
+     */
+    public long getRowsPerSecond() {
+        long elapsed = System.currentTimeMillis() - startTime;
+        return elapsed <= 0 ? 0 : rowCount.get() * 1000 / elapsed;
+    }
+
+    /**
+     * 预计完成时间，未提供预估总行数或尚无写入速度时返回null
+     *
+     * @return 预计完成时间
+     */
+    public Date getEstimatedEndTime() {
+        long rowsPerSecond = getRowsPerSecond();
+        if (estimatedTotalRows == null || rowsPerSecond <= 0) {
+            return null;
+        }
+        long remaining = Math.max(0, estimatedTotalRows - rowCount.get());
+        return new Date(System.currentTimeMillis() + remaining * 1000 / rowsPerSecond);
+    }
+}
@@ -0,0 +1,141 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+import com.oppo.corehrpt.basic.export.entity.ComExportRecordVO;
+import com.oppo.corehrpt.basic.service.BaseCommonService2;
+import com.oppo.gcommon.starter.base.context.UserContextHolder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 导出进度写回器
+ * <p>
+ * 写入线程只更新内存中的 ExportProgress，本写回器按固定间隔扫描有更新的任务，
+ * 每个任务每个间隔最多一次导出记录更新，进度跟踪不随分页数增加数据库压力。
+ * 写回与停止跟踪按任务互斥：unregister 返回后不会再有该任务的进度更新，不会覆盖随后写入的最终状态，
+ * 一个任务的写回较慢时不影响其他任务结束
+ * </p>
+ */
+@Slf4j
+@Component
+public class ExportProgressReporter {
+
+    /** 写回间隔（秒） */
+    private static final long INTERVAL_SECONDS = 5;
+
+    @Resource
+    private BaseCommonService2 baseCommonService2;
+
+    /** 执行中的导出进度，key: 导出记录ID */
+    private final Map<Long, TrackedProgress> progressMap = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void init() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(new ExportThreadFactory("export-progress-"));
+        scheduler.scheduleWithFixedDelay(this::flush, INTERVAL_SECONDS, INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 停止前写回最后一次有更新的进度
+     */
+    @PreDestroy
+    public void destroy() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        flush();
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * 开始跟踪导出进度
+     *
+     * @param progress 导出进度
+     */
+    public void register(ExportProgress progress) {
+        progressMap.put(progress.getExportRecordId(), new TrackedProgress(progress));
+    }
+
+    /**
+     * 停止跟踪导出进度，导出结束时调用，最终进度随导出结果一起更新；正在写回该任务进度时等待写回完成
+     *
+     * @param progress 导出进度
+     */
+    public void unregister(ExportProgress progress) {
+        TrackedProgress tracked = progressMap.get(progress.getExportRecordId());
+        if (tracked == null || tracked.progress != progress) {
+            return;
+        }
+        tracked.lock.lock();
+        try {
+            progressMap.remove(progress.getExportRecordId(), tracked);
+        } finally {
+            tracked.lock.unlock();
+        }
+    }
+
+    /**
+     * 写回有更新的导出进度
+     */
+    private void flush() {
+        for (TrackedProgress tracked : progressMap.values()) {
+            ExportProgress progress = tracked.progress;
+            tracked.lock.lock();
+            try {
+                // 遍历期间已停止跟踪的任务不再写回
+                if (progressMap.get(progress.getExportRecordId()) != tracked || !progress.takeDirty()) {
+                    continue;
+                }
+                UserContextHolder.setUserInfo(progress.getLoginUserBean());
+                ComExportRecordVO recordVO = new ComExportRecordVO();
+                recordVO.setId(progress.getExportRecordId());
+                fillProgress(recordVO, progress);
+                baseCommonService2.updateExportRecord(recordVO);
+            } catch (Exception e) {
+                log.error("Update export progress error, exportRecordId:{}", progress.getExportRecordId(), e);
+            } finally {
+                tracked.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 填充导出记录的进度字段
+     *
+     * @param recordVO 导出记录VO
+     * @param progress 导出进度
+     */
+    public static void fillProgress(ComExportRecordVO recordVO, ExportProgress progress) {
+        recordVO.setRowCount(progress.getRowCount().get());
+        recordVO.setPageCount(progress.getPageCount().get());
+        recordVO.setSheetNum(progress.getSheetNum());
+        recordVO.setRowsPerSecond(progress.getRowsPerSecond());
+        recordVO.setEstimatedEndTime(progress.getEstimatedEndTime());
+    }
+
+    /**
+     * 跟踪中的导出进度，写回与停止跟踪使用任务自己的锁
+     */
+    private static class TrackedProgress {
+
+        private final ExportProgress progress;
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        TrackedProgress(ExportProgress progress) {
+            this.progress = progress;
+        }
+    }
+}
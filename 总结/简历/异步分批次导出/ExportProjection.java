@@ -0,0 +1,102 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 导出列投影
+ * <p>
+ * 按 @ExcelColumn 和排除/包含字段解析出实际导出的字段（与 getDataList 写出的列一致），传给支持投影的分页处理器，
+ * 处理器可只查询、映射这些列，如 {@code SELECT ${projection.selectColumns}}，减少数据库IO、网络传输和对象分配
+ * </p>
+ */
+public final class ExportProjection {
+
+    /** 导出字段名，按 @ExcelColumn.index 升序 */
+    private final List<String> fieldNames;
+
+    /** 导出字段对应的列名（驼峰转下划线） */
+    private final List<String> columnNames;
+
+    private final Set<String> fieldNameSet;
+
+    private ExportProjection(List<String> fieldNames) {
+        this.fieldNames = Collections.unmodifiableList(fieldNames);
+        List<String> columns = new ArrayList<>(fieldNames.size());
+        fieldNames.forEach(f -> columns.add(toColumnName(f)));
+        this.columnNames = Collections.unmodifiableList(columns);
+        this.fieldNameSet = new HashSet<>(fieldNames);
+    }
+
+    /**
+     * 解析导出列投影
+     *
+     * @param clazz            数据模型类
+     * @param excludeFieldList 要排除的字段名列表，可为null
+     * @param includeFieldList 要包含的字段名列表，可为null
+     * @return 导出列投影
+     */
+    public static ExportProjection of(Class<?> clazz, List<String> excludeFieldList, List<String> includeFieldList) {
+        List<Field> fieldList = ExportHelper2.extractSortFields(clazz.getDeclaredFields(), excludeFieldList, includeFieldList);
+        List<String> fieldNames = new ArrayList<>(fieldList.size());
+        fieldList.forEach(f -> fieldNames.add(f.getName()));
+        return new ExportProjection(fieldNames);
+    }
+
+    /**
+     * 导出字段名，按 @ExcelColumn.index 升序
+     *
+     * @return 不可修改的字段名列表
+     */
+    public List<String> getFieldNames() {
+        return fieldNames;
+    }
+
+    /**
+     * 导出字段对应的列名，字段名驼峰转下划线，如 empName -> emp_name
+     *
+     * @return 不可修改的列名列表
+     */
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    /**
+     * 逗号分隔的列名，可直接拼入 SELECT 子句；列名与字段名不对应时应使用 {@link #contains(String)} 自行组装
+     *
+     * @return 列名，如 emp_no,emp_name
+     */
+    public String getSelectColumns() {
+        return String.join(",", columnNames);
+    }
+
+    /**
+     * 字段是否导出
+     *
+     * @param fieldName 字段名
+     * @return 导出返回true
+     */
+    public boolean contains(String fieldName) {
+        return fieldNameSet.contains(fieldName);
+    }
+
+    private static String toColumnName(String fieldName) {
+        StringBuilder sb = new StringBuilder(fieldName.length() + 4);
+        for (int i = 0; i < fieldName.length(); i++) {
+            char c = fieldName.charAt(i);
+            if (Character.isUpperCase(c)) {
+                if (i > 0) {
+                    sb.append('_');
+                }
+                sb.append(Character.toLowerCase(c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
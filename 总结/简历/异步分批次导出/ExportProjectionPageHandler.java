@@ -0,0 +1,24 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+import com.oppo.gcommon.starter.mybatis.pojo.vo.PageResultVO;
+
+/**
+ * 支持列投影的分页查询处理器
+ * <p>
+ * 与 ExportHelper.ExportPageHandler 相同按查询条件中的页码、条数分页，额外传入实际导出的列，
+ * 处理器只查询、映射这些列，未导出的字段（如大文本）不必查询
+ * </p>
+ *
+ * @param <T> 数据模型类型
+ */
+@FunctionalInterface
+public interface ExportProjectionPageHandler<T> {
+
+    /**
+     * 查询一页数据
+     *
+     * @param projection 导出列投影
+     * @return 分页数据
+     */
+    PageResultVO<T> page(ExportProjection projection);
+}
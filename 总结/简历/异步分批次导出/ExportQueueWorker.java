@@ -0,0 +1,230 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+import com.oppo.corehrpt.basic.config.ExportSchedulerConfig;
+import com.oppo.corehrpt.basic.export.entity.ExportCheckpoint;
+import com.oppo.corehrpt.basic.service.BaseCommonService2;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 集群导出队列工作节点
+ * <p>
+ * 以导出记录表为任务队列：options.distributed 的导出只登记任务，启用 export-scheduler.queueEnabled 的节点
+ * 定时查询本节点支持的任务类型中未被认领或租约已过期的任务，按条件更新认领（同一任务只有一个节点成功），
+ * 认领数不超过 queueConcurrency。执行期间定时续期租约；节点宕机或失联时租约过期，由其他节点重新认领并从头导出，
+ * 认领次数达到 queueMaxClaims 后标记为失败。续期失败说明任务已被其他节点接管，本节点停止导出且不再更新导出记录
+ * </p>
+ * <p>
+ * 各节点以本机时间判断租约是否过期，节点间时钟偏差须远小于 queueLeaseSeconds
+ * </p>
+ */
+@Slf4j
+@Component
+public class ExportQueueWorker implements ApplicationRunner {
+
+    @Resource
+    private ExportSchedulerConfig exportSchedulerConfig;
+
+    @Resource
+    private BaseCommonService2 baseCommonService2;
+
+    @Autowired(required = false)
+    private List<ResumableExportHandler<?, ?>> handlers = Collections.emptyList();
+
+    /** 任务类型 -> 可续传导出处理器 */
+    private Map<String, ResumableExportHandler<?, ?>> handlerMap;
+
+    /** 工作节点标识 */
+    private String nodeId;
+
+    private ScheduledExecutorService executor;
+
+    /** 本节点认领中的任务，key: 导出记录ID */
+    private final Map<Long, ClaimedJob> claimedJobs = new ConcurrentHashMap<>();
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!exportSchedulerConfig.isQueueEnabled()) {
+            return;
+        }
+        handlerMap = ExportHelper2.indexHandlers(handlers);
+        nodeId = StringUtils.defaultIfBlank(exportSchedulerConfig.getQueueNodeId(), ManagementFactory.getRuntimeMXBean().getName());
+        // 续期与认领使用不同线程，认领时查询缓慢不影响续期
+        executor = Executors.newScheduledThreadPool(2, new ExportThreadFactory("export-queue-"));
+        long pollSeconds = exportSchedulerConfig.getQueuePollSeconds();
+        long heartbeatSeconds = exportSchedulerConfig.getQueueHeartbeatSeconds();
+        executor.scheduleWithFixedDelay(this::poll, pollSeconds, pollSeconds, TimeUnit.SECONDS);
+        executor.scheduleWithFixedDelay(this::heartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+        log.info("Export queue worker started, nodeId:{}, taskTypes:{}", nodeId, handlerMap.keySet());
+    }
+
+    @PreDestroy
+    public void destroy() {
+        // 不再认领和续期，执行中的任务随进程结束，租约过期后由其他节点重新认领
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 标记认领次数已用完的任务，在空闲并发内认领新任务
+     */
+    private void poll() {
+        try {
+            Date now = new Date();
+            int maxClaims = exportSchedulerConfig.getQueueMaxClaims();
+            int failed = baseCommonService2.failExhaustedExportJobs(now, maxClaims, "Export failed after " + maxClaims + " attempts.");
+            if (failed > 0) {
+                log.warn("Export jobs failed after {} attempts, count:{}", maxClaims, failed);
+            }
+            int free = exportSchedulerConfig.getQueueConcurrency() - claimedJobs.size();
+            if (free <= 0) {
+                return;
+            }
+            List<Long> idList = baseCommonService2.listClaimableExportJobIds(handlerMap.keySet(), now, maxClaims, free);
+            for (Long id : idList) {
+                Date leaseExpireTime = new Date(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(exportSchedulerConfig.getQueueLeaseSeconds()));
+                String payload = baseCommonService2.claimExportJob(id, nodeId, now, leaseExpireTime);
+                if (payload != null) {
+                    start(id, payload);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Poll export queue error, nodeId:{}", nodeId, e);
+        }
+    }
+
+    /**
+     * 提交已认领的任务，提交失败时释放租约，由其他节点认领
+     *
+     * @param exportRecordId 导出记录ID
+     * @param payload        任务内容JSON
+     */
+    private void start(Long exportRecordId, String payload) {
+        ClaimedJob job = new ClaimedJob(exportRecordId, nodeId);
+        claimedJobs.put(exportRecordId, job);
+        try {
+            ExportCheckpoint checkpoint = ExportCheckpointStore.fromJson(payload, ExportCheckpoint.class);
+            log.info("Export job claimed, exportRecordId:{}, taskType:{}, nodeId:{}", exportRecordId, checkpoint.getTaskType(), nodeId);
+            ExportHelper2.runQueuedExport(checkpoint, handlerMap.get(checkpoint.getTaskType()), job);
+        } catch (Exception e) {
+            log.error("Start export job error, exportRecordId:{}, nodeId:{}", exportRecordId, nodeId, e);
+            claimedJobs.remove(exportRecordId, job);
+            baseCommonService2.releaseExportJob(exportRecordId, nodeId);
+        }
+    }
+
+    /**
+     * 续期本节点认领中的任务，续期失败的任务停止导出；发起人已请求取消的任务取消导出
+     */
+    private void heartbeat() {
+        try {
+            for (Long id : baseCommonService2.listCancelRequestedExportJobIds(claimedJobs.keySet())) {
+                ClaimedJob job = claimedJobs.get(id);
+                if (job != null) {
+                    log.info("Cancel export job by request, exportRecordId:{}, nodeId:{}", id, nodeId);
+                    job.cancel("Cancelled by creator.");
+                }
+            }
+        } catch (Exception e) {
+            log.error("Check export cancel requests error, nodeId:{}", nodeId, e);
+        }
+        Date leaseExpireTime = new Date(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(exportSchedulerConfig.getQueueLeaseSeconds()));
+        for (ClaimedJob job : claimedJobs.values()) {
+            if (job.isLeaseLost()) {
+                continue;
+            }
+            try {
+                if (!baseCommonService2.renewExportJobLease(job.exportRecordId, nodeId, leaseExpireTime)) {
+                    log.warn("Export lease lost, exportRecordId:{}, nodeId:{}", job.exportRecordId, nodeId);
+                    job.leaseLost();
+                }
+            } catch (Exception e) {
+                // 数据库暂时不可用时下次重试，租约到期前恢复即可
+                log.error("Renew export lease error, exportRecordId:{}, nodeId:{}", job.exportRecordId, nodeId, e);
+            }
+        }
+    }
+
+    /**
+     * 本节点认领中的任务，导出线程结束前一直占用认领数
+     */
+    final class ClaimedJob {
+
+        private final long exportRecordId;
+
+        /** 认领节点标识 */
+        private final String leaseOwner;
+
+        /** 导出任务句柄，任务开始执行后设置 */
+        private ExportJobHandle handle;
+
+        /** 租约已被其他节点接管 */
+        private boolean leaseLost;
+
+        /** 任务开始执行前收到的取消原因 */
+        private String cancelReason;
+
+        private ClaimedJob(long exportRecordId, String leaseOwner) {
+            this.exportRecordId = exportRecordId;
+            this.leaseOwner = leaseOwner;
+        }
+
+        /**
+         * 任务开始执行，结束时只在仍持有租约时更新导出记录；租约已丢失或已请求取消时立即停止
+         *
+         * @param handle 导出任务句柄
+         */
+        synchronized void attach(ExportJobHandle handle) {
+            this.handle = handle;
+            handle.setLeaseOwner(leaseOwner);
+            if (leaseLost) {
+                handle.detach();
+            }
+            if (cancelReason != null) {
+                handle.cancel(cancelReason);
+            }
+        }
+
+        /**
+         * 导出线程结束，释放认领数；导出记录的最终状态由导出线程更新，租约随之失效
+         */
+        void finish() {
+            claimedJobs.remove(exportRecordId, this);
+        }
+
+        private synchronized boolean isLeaseLost() {
+            return leaseLost;
+        }
+
+        private synchronized void cancel(String reason) {
+            cancelReason = reason;
+            if (handle != null) {
+                handle.cancel(reason);
+            }
+        }
+
+        private synchronized void leaseLost() {
+            leaseLost = true;
+            if (handle != null) {
+                handle.detach();
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 可续传导出恢复器
+ * <p>
+ * 应用启动完成后扫描本节点临时目录下的导出断点，导出记录仍未完成的按断点重新提交，
+ * 只查询断点之后的数据
+ * </p>
+ */
+@Slf4j
+@Component
+public class ExportRecoveryRunner implements ApplicationRunner {
+
+    @Autowired(required = false)
+    private List<ResumableExportHandler<?, ?>> handlers = Collections.emptyList();
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            ExportHelper2.recoverExports(handlers);
+        } catch (Exception e) {
+            // 恢复失败不影响应用启动
+            log.error("Recover exports error", e);
+        }
+    }
+}
@@ -0,0 +1,396 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+import com.oppo.corehrpt.basic.config.ExportSchedulerConfig;
+import com.oppo.corehrpt.basic.logging.trace.WrappedThreadPoolTaskExecutor;
+import com.oppo.gcommon.starter.base.exception.SimpleException;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 导出任务调度器
+ * <p>
+ * 导出专用线程池，按用户、任务类型限制并发，在有排队任务的用户之间轮询调度，
+ * 超出并发的任务在导出中心标记为排队等待；调度器不会在请求线程中执行导出
+ * </p>
+ */
+@Slf4j
+@Component
+public class ExportScheduler {
+
+    @Resource
+    private ExportSchedulerConfig exportSchedulerConfig;
+
+    private ThreadPoolTaskExecutor executor;
+
+    /** 分页预取线程池，每个执行中的导出最多占用一个线程，线程数不超过导出并发，没有空闲线程时拒绝 */
+    private ThreadPoolTaskExecutor prefetchExecutor;
+
+    /** 流式上传线程池，每个流式上传的导出占用一个线程，线程数不超过导出并发，超出时排队等待其他上传结束 */
+    private ThreadPoolTaskExecutor uploadExecutor;
+
+    /** 分区导出线程池，所有分区导出任务共用，线程数有上限，超出时按提交顺序排队 */
+    private ThreadPoolTaskExecutor partitionExecutor;
+
+    /** 导入工作线程池，所有导入任务共用，线程数有上限，超出时按提交顺序排队 */
+    private ThreadPoolTaskExecutor importExecutor;
+
+    private int maxConcurrency;
+
+    /** 使用显式锁而不是 synchronized，虚拟线程提交任务时不占用载体线程 */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /** 各用户的排队任务，key: 用户账号，迭代顺序即轮询顺序 */
+    private final LinkedHashMap<String, Deque<ExportJob>> waitingJobs = new LinkedHashMap<>();
+
+    /** 各用户执行中的任务数 */
+    private final Map<String, Integer> runningByUser = new HashMap<>();
+
+    /** 各任务类型执行中的任务数 */
+    private final Map<String, Integer> runningByTaskType = new HashMap<>();
+
+    private int running;
+
+    private int waiting;
+
+    /** 线程池关闭后被拒绝的任务，释放锁后执行拒绝回调 */
+    private final Deque<ExportJob> rejectedJobs = new ArrayDeque<>();
+
+    @PostConstruct
+    public void init() {
+        maxConcurrency = exportSchedulerConfig.getMaxConcurrency() <= 0
+                ? Runtime.getRuntime().availableProcessors() : exportSchedulerConfig.getMaxConcurrency();
+        executor = new WrappedThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        // 只在有空闲并发时提交，队列不会堆积
+        executor.setQueueCapacity(maxConcurrency);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setThreadGroupName(exportSchedulerConfig.getThreadGroupName());
+        executor.setThreadNamePrefix("export-");
+        executor.initialize();
+
+        prefetchExecutor = new WrappedThreadPoolTaskExecutor();
+        prefetchExecutor.setCorePoolSize(maxConcurrency);
+        prefetchExecutor.setMaxPoolSize(maxConcurrency);
+        prefetchExecutor.setQueueCapacity(0);
+        prefetchExecutor.setAllowCoreThreadTimeOut(true);
+        prefetchExecutor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        prefetchExecutor.setThreadGroupName(exportSchedulerConfig.getThreadGroupName());
+        prefetchExecutor.setThreadNamePrefix("export-prefetch-");
+        prefetchExecutor.initialize();
+
+        uploadExecutor = new WrappedThreadPoolTaskExecutor();
+        uploadExecutor.setCorePoolSize(maxConcurrency);
+        uploadExecutor.setMaxPoolSize(maxConcurrency);
+        uploadExecutor.setAllowCoreThreadTimeOut(true);
+        uploadExecutor.setThreadGroupName(exportSchedulerConfig.getThreadGroupName());
+        uploadExecutor.setThreadNamePrefix("export-upload-");
+        uploadExecutor.initialize();
+
+        int partitionThreads = exportSchedulerConfig.getPartitionThreads() <= 0
+                ? Runtime.getRuntime().availableProcessors() : exportSchedulerConfig.getPartitionThreads();
+        partitionExecutor = new WrappedThreadPoolTaskExecutor();
+        partitionExecutor.setCorePoolSize(partitionThreads);
+        partitionExecutor.setMaxPoolSize(partitionThreads);
+        // 每个任务提交到线程池的分区数不超过其并行数，队列长度有上限
+        partitionExecutor.setAllowCoreThreadTimeOut(true);
+        partitionExecutor.setThreadGroupName(exportSchedulerConfig.getThreadGroupName());
+        partitionExecutor.setThreadNamePrefix("export-partition-");
+        partitionExecutor.initialize();
+
+        int importThreads = exportSchedulerConfig.getImportThreads() <= 0
+                ? Runtime.getRuntime().availableProcessors() : exportSchedulerConfig.getImportThreads();
+        importExecutor = new WrappedThreadPoolTaskExecutor();
+        importExecutor.setCorePoolSize(importThreads);
+        importExecutor.setMaxPoolSize(importThreads);
+        // 每个任务提交到线程池的批次数不超过其并行数，队列长度有上限
+        importExecutor.setAllowCoreThreadTimeOut(true);
+        importExecutor.setThreadGroupName(exportSchedulerConfig.getThreadGroupName());
+        importExecutor.setThreadNamePrefix("import-worker-");
+        importExecutor.initialize();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdown();
+        prefetchExecutor.shutdown();
+        uploadExecutor.shutdown();
+        partitionExecutor.shutdown();
+        importExecutor.shutdown();
+    }
+
+    /**
+     * 分页预取线程池，提交时没有空闲线程抛出 RejectedExecutionException
+     *
+     * @return 预取线程池
+     */
+    public ExecutorService getPrefetchExecutor() {
+        return prefetchExecutor.getThreadPoolExecutor();
+    }
+
+    /**
+     * 流式上传线程池
+     *
+     * @return 上传线程池
+     */
+    public ExecutorService getUploadExecutor() {
+        return uploadExecutor.getThreadPoolExecutor();
+    }
+
+    /**
+     * 单个任务的分区执行器，在共享的分区线程池上按提交顺序最多同时执行 parallelism 个分区
+     *
+     * @param parallelism 单个任务的分区并行数
+     * @return 分区执行器，任务结束后须 shutdownNow
+     */
+    public ExportLimitedExecutor newPartitionExecutor(int parallelism) {
+        return new ExportLimitedExecutor(partitionExecutor.getThreadPoolExecutor(), parallelism);
+    }
+
+    /**
+     * 单个导入任务的工作执行器，在共享的导入线程池上按提交顺序最多同时处理 parallelism 个批次
+     *
+     * @param parallelism 单个任务的并行数
+     * @return 工作执行器，任务结束后须 shutdownNow
+     */
+    public ExportLimitedExecutor newImportExecutor(int parallelism) {
+        return new ExportLimitedExecutor(importExecutor.getThreadPoolExecutor(), parallelism);
+    }
+
+    /**
+     * 提交导出任务
+     *
+     * @param userId    用户账号，按账号限制并发和轮询，不能使用可能重名的姓名
+     * @param taskType  任务类型
+     * @param task      导出任务
+     * @param onWaiting  任务需要排队时的回调（如标记导出记录为排队中），在当前线程中执行，执行完成前任务不会开始
+     * @param onRejected 线程池已关闭、任务不会再执行时的回调（如标记导出记录为失败），在排队回调之后执行
+     * @throws SimpleException 排队任务数超过上限时抛出
+     */
+    public void submit(String userId, String taskType, Runnable task, Runnable onWaiting, Runnable onRejected) {
+        ExportJob job = new ExportJob(userId, taskType, task, onRejected);
+        lock.lock();
+        try {
+            if (waiting >= exportSchedulerConfig.getMaxWaiting()) {
+                throw new SimpleException("Too many export tasks are waiting, please try again later.");
+            }
+            waitingJobs.computeIfAbsent(userId, k -> new ArrayDeque<>()).addLast(job);
+            waiting++;
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+        if (!job.isStarted()) {
+            try {
+                onWaiting.run();
+            } catch (Exception e) {
+                log.error("Mark export waiting error", e);
+            }
+        }
+        job.getWaitingMarked().countDown();
+        notifyRejected();
+    }
+
+    /**
+     * 在空闲并发内按用户轮询调度排队任务，须持有锁调用
+     */
+    private void dispatch() {
+        boolean dispatched = true;
+        while (running < maxConcurrency && dispatched) {
+            dispatched = false;
+            Iterator<Map.Entry<String, Deque<ExportJob>>> userIterator = waitingJobs.entrySet().iterator();
+            while (userIterator.hasNext() && running < maxConcurrency) {
+                Map.Entry<String, Deque<ExportJob>> userEntry = userIterator.next();
+                String userId = userEntry.getKey();
+                if (runningByUser.getOrDefault(userId, 0) >= exportSchedulerConfig.getMaxPerUser()) {
+                    continue;
+                }
+                ExportJob job = pollRunnable(userEntry.getValue());
+                if (job == null) {
+                    continue;
+                }
+                // 已调度的用户移到队尾，实现用户间轮询
+                userIterator.remove();
+                if (!userEntry.getValue().isEmpty()) {
+                    waitingJobs.put(userId, userEntry.getValue());
+                }
+                if (!start(job)) {
+                    // 线程池暂时无法接收，任务已放回队列，等下一个任务结束时再调度
+                    return;
+                }
+                dispatched = true;
+                break;
+            }
+        }
+    }
+
+    /**
+     * 取出用户排队任务中第一个任务类型未达上限的任务
+     */
+    private ExportJob pollRunnable(Deque<ExportJob> jobs) {
+        Iterator<ExportJob> iterator = jobs.iterator();
+        while (iterator.hasNext()) {
+            ExportJob job = iterator.next();
+            if (runningByTaskType.getOrDefault(job.getTaskType(), 0) < exportSchedulerConfig.getMaxPerTaskType()) {
+                iterator.remove();
+                return job;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 开始执行任务，须持有锁调用
+     *
+     * 线程池拒绝时回退计数：线程池已关闭的任务移出队列等待拒绝回调，否则放回用户队首
+     *
+     * @return 任务被拒绝并放回队列时返回false
+     */
+    private boolean start(ExportJob job) {
+        waiting--;
+        running++;
+        runningByUser.merge(job.getUserId(), 1, Integer::sum);
+        runningByTaskType.merge(job.getTaskType(), 1, Integer::sum);
+        job.setStarted(true);
+        try {
+            executor.execute(() -> {
+                try {
+                    job.awaitWaitingMarked();
+                    job.getTask().run();
+                } catch (Throwable e) {
+                    log.error("Export task error", e);
+                } finally {
+                    finish(job);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            job.setStarted(false);
+            release(job);
+            if (executor.getThreadPoolExecutor().isShutdown()) {
+                log.error("Export task rejected, executor is shut down, userId:{}, taskType:{}", job.getUserId(), job.getTaskType());
+                rejectedJobs.addLast(job);
+                return true;
+            }
+            log.warn("Export task rejected, requeue, userId:{}, taskType:{}", job.getUserId(), job.getTaskType());
+            requeue(job);
+            return false;
+        }
+    }
+
+    private void finish(ExportJob job) {
+        lock.lock();
+        try {
+            release(job);
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+        notifyRejected();
+    }
+
+    /**
+     * 回退任务占用的并发计数，须持有锁调用
+     */
+    private void release(ExportJob job) {
+        running--;
+        runningByUser.computeIfPresent(job.getUserId(), (k, v) -> v <= 1 ? null : v - 1);
+        runningByTaskType.computeIfPresent(job.getTaskType(), (k, v) -> v <= 1 ? null : v - 1);
+    }
+
+    /**
+     * 放回用户队首，保持原有顺序，须持有锁调用
+     */
+    private void requeue(ExportJob job) {
+        Deque<ExportJob> jobs = waitingJobs.get(job.getUserId());
+        if (jobs == null) {
+            jobs = new ArrayDeque<>();
+            // 新建的用户队列放在轮询顺序最前
+            LinkedHashMap<String, Deque<ExportJob>> reordered = new LinkedHashMap<>();
+            reordered.put(job.getUserId(), jobs);
+            reordered.putAll(waitingJobs);
+            waitingJobs.clear();
+            waitingJobs.putAll(reordered);
+        }
+        jobs.addFirst(job);
+        waiting++;
+    }
+
+    /**
+     * 在锁外执行被拒绝任务的回调
+     */
+    private void notifyRejected() {
+        while (true) {
+            ExportJob job;
+            lock.lock();
+            try {
+                job = rejectedJobs.pollFirst();
+            } finally {
+                lock.unlock();
+            }
+            if (job == null) {
+                return;
+            }
+            try {
+                // 排队回调执行完成后再标记失败，避免失败状态被排队状态覆盖
+                job.awaitWaitingMarked();
+                job.getOnRejected().run();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Handle rejected export task error", e);
+            }
+        }
+    }
+
+    /**
+     * 调度中的导出任务
+     */
+    @Getter
+    @Setter
+    private static class ExportJob {
+
+        private final String userId;
+
+        private final String taskType;
+
+        private final Runnable task;
+
+        private final Runnable onRejected;
+
+        /** 排队回调执行完成 */
+        private final CountDownLatch waitingMarked = new CountDownLatch(1);
+
+        private volatile boolean started;
+
+        ExportJob(String userId, String taskType, Runnable task, Runnable onRejected) {
+            this.userId = userId;
+            this.taskType = taskType;
+            this.task = task;
+            this.onRejected = onRejected;
+        }
+
+        void awaitWaitingMarked() throws InterruptedException {
+            waitingMarked.await();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.oppo.corehrpt.basic.config;
+
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Data
+@Component
+public class ExportSchedulerConfig {
+
+    /**
+     * 导出并发数<br/>
+     * <p>
+     * 同时执行的导出任务数，默认0，根据CPU数量设置，并发数 = cpu数量
+     * <p>
+     */
+    @Value("${export-scheduler.maxConcurrency:0}")
+    private int maxConcurrency;
+
+    /**
+     * 单个用户同时执行的导出任务数，超出时排队等待
+     */
+    @Value("${export-scheduler.maxPerUser:2}")
+    private int maxPerUser;
+
+    /**
+     * 单个任务类型同时执行的导出任务数，超出时排队等待
+     */
+    @Value("${export-scheduler.maxPerTaskType:4}")
+    private int maxPerTaskType;
+
+    /**
+     * 最大排队任务数，超出时拒绝新的导出请求
+     */
+    @Value("${export-scheduler.maxWaiting:1000}")
+    private int maxWaiting;
+
+    /**
+     * 分区导出线程数<br/>
+     * <p>
+     * 所有分区导出任务共用的分区线程数，默认0，根据CPU数量设置，线程数 = cpu数量；
+     * 单个任务同时执行的分区数另受 ExportOptions.partitionParallelism 限制
+     * <p>
+     */
+    @Value("${export-scheduler.partitionThreads:0}")
+    private int partitionThreads;
+
+    /**
+     * 导入工作线程数<br/>
+     * <p>
+     * 所有导入任务共用的批次解析、处理线程数，默认0，根据CPU数量设置，线程数 = cpu数量；
+     * 单个任务同时处理的批次数另受 ImportOptions.parallelism 限制
+     * <p>
+     */
+    @Value("${export-scheduler.importThreads:0}")
+    private int importThreads;
+
+    /**
+     * 线程池分组名
+     */
+    @Value("${export-scheduler.threadGroupName:ec-export-thread-pool}")
+    private String threadGroupName;
+
+    /**
+     * 导出内存预算（MB）<br/>
+     * <p>
+     * 所有导出任务已查询、未写出的分页数据共用的内存上限，默认0，取最大堆内存的20%
+     * <p>
+     */
+    @Value("${export-scheduler.memoryBudgetMb:0}")
+    private long memoryBudgetMb;
+
+    /**
+     * 内存预算不足时的最长等待时间（秒），超时后超额放行，避免分区导出等场景互相等待
+     */
+    @Value("${export-scheduler.memoryWaitSeconds:30}")
+    private long memoryWaitSeconds;
+
+    /**
+     * 导出任务最长执行时间（秒），超时自动取消，默认0不限制
+     */
+    @Value("${export-scheduler.maxDurationSeconds:0}")
+    private long maxDurationSeconds;
+
+    /**
+     * 导出任务最大行数，超出自动取消，默认0不限制
+     */
+    @Value("${export-scheduler.maxRows:0}")
+    private long maxRows;
+
+    /**
+     * 按任务类型配置的最长执行时间（秒），优先于 maxDurationSeconds，如 {USER_EXPORT: 600}
+     */
+    @Value("#{${export-scheduler.taskMaxDurationSeconds:{:}}}")
+    private Map<String, Long> taskMaxDurationSeconds;
+
+    /**
+     * 按任务类型配置的最大行数，优先于 maxRows，如 {USER_EXPORT: 2000000}
+     */
+    @Value("#{${export-scheduler.taskMaxRows:{:}}}")
+    private Map<String, Long> taskMaxRows;
+
+    /**
+     * 导出临时文件目录，多个用逗号分隔，按顺序优先使用（如 tmpfs、本地NVMe在前），剩余空间不足时使用下一个<br/>
+     * <p>
+     * 首个目录下的 poifiles 子目录会设为POI临时文件目录（SXSSF行溢出文件等），该设置JVM全局生效，
+     * 进程内其他POI调用也会写到该子目录；POI临时文件不计入 tempQuotaMb，不被启动清理删除
+     * <p>
+     */
+    @Value("${export-scheduler.tempDirs:/home/corehr/DOCs/tmp}")
+    private String tempDirs;
+
+    /**
+     * 导出临时文件总配额（MB），所有目录合计，默认0不限制，只检查 tempMinFreeMb
+     */
+    @Value("${export-scheduler.tempQuotaMb:0}")
+    private long tempQuotaMb;
+
+    /**
+     * 临时目录保留的最小剩余空间（MB），低于此值时不再在该目录创建临时文件
+     */
+    @Value("${export-scheduler.tempMinFreeMb:1024}")
+    private long tempMinFreeMb;
+
+    /**
+     * 每个临时文件创建时预留的空间（MB），写完后按实际大小修正
+     */
+    @Value("${export-scheduler.tempReserveMb:64}")
+    private long tempReserveMb;
+
+    /**
+     * 配额不足时的最长等待时间（秒），超时后导出失败
+     */
+    @Value("${export-scheduler.tempWaitSeconds:60}")
+    private long tempWaitSeconds;
+
+    /**
+     * 可续传导出的断点目录，须为持久化磁盘，重启时不清理
+     */
+    @Value("${export-scheduler.checkpointDir:/home/corehr/DOCs/tmp/checkpoint}")
+    private String checkpointDir;
+
+    /**
+     * 是否启用集群导出队列的工作节点<br/>
+     * <p>
+     * 启用后本节点从导出记录表认领 options.distributed 登记的导出任务并执行；未启用时本节点只登记任务
+     * <p>
+     */
+    @Value("${export-scheduler.queueEnabled:false}")
+    private boolean queueEnabled;
+
+    /**
+     * 工作节点标识，为空时取 进程号@主机名，须在集群内唯一
+     */
+    @Value("${export-scheduler.queueNodeId:}")
+    private String queueNodeId;
+
+    /**
+     * 单个节点同时认领的队列任务数
+     */
+    @Value("${export-scheduler.queueConcurrency:2}")
+    private int queueConcurrency;
+
+    /**
+     * 认领租约时长（秒），节点宕机或失联超过此时间后任务由其他节点重新认领
+     */
+    @Value("${export-scheduler.queueLeaseSeconds:60}")
+    private long queueLeaseSeconds;
+
+    /**
+     * 租约续期间隔（秒），须明显小于 queueLeaseSeconds
+     */
+    @Value("${export-scheduler.queueHeartbeatSeconds:15}")
+    private long queueHeartbeatSeconds;
+
+    /**
+     * 空闲时查询待认领任务的间隔（秒）
+     */
+    @Value("${export-scheduler.queuePollSeconds:5}")
+    private long queuePollSeconds;
+
+    /**
+     * 单个任务最多被认领的次数，超出后标记为失败，避免导致节点宕机的任务在集群内反复执行
+     */
+    @Value("${export-scheduler.queueMaxClaims:3}")
+    private int queueMaxClaims;
+}
@@ -0,0 +1,64 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+import com.oppo.corehrpt.basic.export.entity.ExcelModelEntity;
+import com.oppo.corehrpt.basic.pojo.query.page.PageQuery;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 附加Sheet页的分页数据源
+ * <p>
+ * 与主Sheet页一样在异步线程中分页查询、转换和写入，超过Excel Sheet最大行数时自动增加新的Sheet，
+ * 不在请求线程中预先加载全部数据。Sheet页名称、表头取模型类的 @ExcelModel、@ExcelColumn
+ * </p>
+ *
+ * @param <T> 数据模型类型
+ */
+@Getter
+public class ExportSheetSource<T> {
+
+    /** 数据模型类 */
+    private final Class<T> clazz;
+
+    /** 分页查询处理器 */
+    private final ExportHelper.ExportPageHandler<T> handler;
+
+    /** 分页查询条件，取exportPageSize作为分页条数 */
+    private final PageQuery query;
+
+    /** Excel配置信息，创建时按请求线程的语言解析 */
+    private final ExcelModelEntity entity;
+
+    private ExportSheetSource(Class<T> clazz, ExportHelper.ExportPageHandler<T> handler, PageQuery query, List<String> excludeFieldList) {
+        this.clazz = clazz;
+        this.handler = handler;
+        this.query = query;
+        this.entity = ExportHelper2.extractExcelModel(clazz, excludeFieldList);
+    }
+
+    /**
+     * 创建附加Sheet页数据源
+     *
+     * @param clazz   数据模型类，必须包含@ExcelModel和@ExcelColumn注解
+     * @param handler 分页查询处理器
+     * @param query   分页查询条件，包含分页参数
+     * @return 附加Sheet页数据源
+     */
+    public static <T> ExportSheetSource<T> of(Class<T> clazz, ExportHelper.ExportPageHandler<T> handler, PageQuery query) {
+        return of(clazz, handler, query, null);
+    }
+
+    /**
+     * 创建附加Sheet页数据源
+     *
+     * @param clazz            数据模型类，必须包含@ExcelModel和@ExcelColumn注解
+     * @param handler          分页查询处理器
+     * @param query            分页查询条件，包含分页参数
+     * @param excludeFieldList 要排除的字段名列表，可为null
+     * @return 附加Sheet页数据源
+     */
+    public static <T> ExportSheetSource<T> of(Class<T> clazz, ExportHelper.ExportPageHandler<T> handler, PageQuery query, List<String> excludeFieldList) {
+        return new ExportSheetSource<>(clazz, handler, query, excludeFieldList);
+    }
+}
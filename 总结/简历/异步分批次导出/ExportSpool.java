@@ -0,0 +1,213 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+import com.oppo.gcommon.starter.base.exception.SimpleException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 导出中间数据文件
+ * <p>
+ * 可续传导出先把转换后的行数据追加到中间文件，查询完成后再一次性编码成XLSX/CSV。
+ * XLSX写入器无法在重启后续写，中间文件只追加，断点记录有效长度，恢复时截断到断点位置继续追加即可。
+ * 单元格按类型编码，保证最终写入Excel的数字、文本类型与直接导出一致
+ * </p>
+ */
+public class ExportSpool implements AutoCloseable {
+
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_LONG = 2;
+    private static final byte TYPE_DOUBLE = 3;
+    private static final byte TYPE_DECIMAL = 4;
+
+    /** 字符串按块写入，避免 writeUTF 的64K长度限制 */
+    private static final int STRING_CHUNK = 16 * 1024;
+
+    private final File file;
+
+    private final FileOutputStream fileOutputStream;
+
+    private final DataOutputStream out;
+
+    private ExportSpool(File file, FileOutputStream fileOutputStream) {
+        this.file = file;
+        this.fileOutputStream = fileOutputStream;
+        this.out = new DataOutputStream(new BufferedOutputStream(fileOutputStream, 64 * 1024));
+    }
+
+    /**
+     * 打开中间文件，截断到有效长度后追加
+     *
+     * @param file   中间文件
+     * @param length 有效长度，新文件为0
+     * @return 中间文件
+     */
+    public static ExportSpool open(File file, long length) {
+        try {
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                // 丢弃最后一次断点之后写入的数据，这部分会重新查询
+                raf.setLength(length);
+            }
+            return new ExportSpool(file, new FileOutputStream(file, true));
+        } catch (IOException e) {
+            throw new SimpleException("Open export spool failed.", e);
+        }
+    }
+
+    /**
+     * 追加行数据
+     *
+     * @param dataList 行数据
+     */
+    public void append(List<List<Object>> dataList) {
+        try {
+            for (List<Object> row : dataList) {
+                out.writeInt(row.size());
+                for (Object cell : row) {
+                    writeCell(cell);
+                }
+            }
+        } catch (IOException e) {
+            throw new SimpleException("Write export spool failed.", e);
+        }
+    }
+
+    /**
+     * 刷盘并返回当前有效长度，用于保存断点
+     *
+     * @return 文件有效长度
+     */
+    public long sync() {
+        try {
+            out.flush();
+            fileOutputStream.getFD().sync();
+            return fileOutputStream.getChannel().size();
+        } catch (IOException e) {
+            throw new SimpleException("Sync export spool failed.", e);
+        }
+    }
+
+    /**
+     * 创建按页读取中间文件的分页获取函数，读取完时关闭文件
+     *
+     * @param pageSize 每页行数
+     * @return 分页获取函数
+     */
+    public ExportPageFetcher reader(int pageSize) {
+        sync();
+        DataInputStream in;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 64 * 1024));
+        } catch (IOException e) {
+            throw new SimpleException("Read export spool failed.", e);
+        }
+        return () -> {
+            List<List<Object>> dataList = new ArrayList<>(pageSize);
+            try {
+                while (dataList.size() < pageSize) {
+                    int cellCount;
+                    try {
+                        cellCount = in.readInt();
+                    } catch (EOFException e) {
+                        break;
+                    }
+                    List<Object> row = new ArrayList<>(cellCount);
+                    for (int i = 0; i < cellCount; i++) {
+                        row.add(readCell(in));
+                    }
+                    dataList.add(row);
+                }
+                boolean last = dataList.size() < pageSize;
+                if (last) {
+                    in.close();
+                }
+                return new ExportPage(dataList, dataList.size(), last);
+            } catch (IOException e) {
+                closeQuietly(in);
+                throw new SimpleException("Read export spool failed.", e);
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        closeQuietly(out);
+    }
+
+    private void writeCell(Object cell) throws IOException {
+        if (cell == null) {
+            out.writeByte(TYPE_NULL);
+        } else if (cell instanceof Long || cell instanceof Integer || cell instanceof Short || cell instanceof Byte) {
+            out.writeByte(TYPE_LONG);
+            out.writeLong(((Number) cell).longValue());
+        } else if (cell instanceof Double || cell instanceof Float) {
+            out.writeByte(TYPE_DOUBLE);
+            out.writeDouble(((Number) cell).doubleValue());
+        } else if (cell instanceof BigDecimal) {
+            out.writeByte(TYPE_DECIMAL);
+            writeString(((BigDecimal) cell).toPlainString());
+        } else {
+            out.writeByte(TYPE_STRING);
+            writeString(cell.toString());
+        }
+    }
+
+    private void writeString(String value) throws IOException {
+        int chunks = (value.length() + STRING_CHUNK - 1) / STRING_CHUNK;
+        out.writeInt(chunks);
+        for (int i = 0; i < chunks; i++) {
+            out.writeUTF(value.substring(i * STRING_CHUNK, Math.min(value.length(), (i + 1) * STRING_CHUNK)));
+        }
+    }
+
+    private static Object readCell(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case TYPE_NULL:
+                return null;
+            case TYPE_LONG:
+                return in.readLong();
+            case TYPE_DOUBLE:
+                return in.readDouble();
+            case TYPE_DECIMAL:
+                return new BigDecimal(readString(in));
+            case TYPE_STRING:
+                return readString(in);
+            default:
+                throw new IOException("Unknown spool cell type: " + type);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int chunks = in.readInt();
+        if (chunks == 1) {
+            return in.readUTF();
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < chunks; i++) {
+            sb.append(in.readUTF());
+        }
+        return sb.toString();
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException ignored) {
+            // ignore
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.oppo.corehrpt.basic.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 导出中心任务状态
+ */
+@Getter
+@AllArgsConstructor
+public enum ExportStatusEnum {
+
+    /** 导出中 */
+    RUNNING(0),
+
+    /** 导出成功 */
+    SUCCESS(1),
+
+    /** 导出失败 */
+    FAILED(2),
+
+    /** 排队等待 */
+    WAITING(3),
+
+    /** 已取消（手动取消、超时或超出最大行数） */
+    CANCELLED(4),
+
+    /** 部分成功（导入有失败行，结果文件列出失败行） */
+    PARTIAL_SUCCESS(5);
+
+    private final int code;
+}
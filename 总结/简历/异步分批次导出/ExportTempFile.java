@@ -0,0 +1,112 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 导出临时文件，持有在 ExportTempStorage 预留的配额，关闭时删除文件并归还配额，重复关闭无副作用。
+ * 写入期间 ExportTempStorage 定时按实际大小增加预留，超出配额或磁盘空间不足时通过任务句柄停止写入
+ */
+@Slf4j
+public class ExportTempFile implements Closeable {
+
+    private final ExportTempStorage storage;
+
+    private final File file;
+
+    /** 写入该文件的导出任务句柄，可为null */
+    private final ExportJobHandle handle;
+
+    /** 创建时间（纳秒），空间不足时优先停止最晚创建的文件 */
+    private final long createNanos = System.nanoTime();
+
+    /** 已预留字节数 */
+    private long reserved;
+
+    private boolean closed;
+
+    /** 删除文件时持有，使用显式锁避免虚拟线程在文件IO期间占用载体线程 */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    ExportTempFile(ExportTempStorage storage, File file, long reserved, ExportJobHandle handle) {
+        this.storage = storage;
+        this.file = file;
+        this.reserved = reserved;
+        this.handle = handle;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    ExportJobHandle getHandle() {
+        return handle;
+    }
+
+    long getCreateNanos() {
+        return createNanos;
+    }
+
+    /**
+     * 写入期间文件超过预留时按实际大小增加预留，不减少
+     */
+    void refresh() {
+        lock.lock();
+        try {
+            long length = file.length();
+            if (!closed && length > reserved) {
+                storage.adjust(length - reserved);
+                reserved = length;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 写完后按实际文件大小修正预留
+     *
+     * @return 文件大小（字节）
+     */
+    public long settle() {
+        lock.lock();
+        try {
+            long length = file.length();
+            if (!closed) {
+                storage.adjust(length - reserved);
+                reserved = length;
+            }
+            return length;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 删除文件并归还配额
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            storage.unregister(this);
+            try {
+                Files.deleteIfExists(file.toPath());
+            } catch (IOException e) {
+                log.warn("Delete temp file error, file:{}", file.getName(), e);
+            }
+            storage.release(reserved);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
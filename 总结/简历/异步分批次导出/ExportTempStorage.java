@@ -0,0 +1,315 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+import com.alibaba.excel.util.FileUtils;
+import com.oppo.corehrpt.basic.config.ExportSchedulerConfig;
+import com.oppo.gcommon.starter.base.exception.SimpleException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import jodd.io.FileUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.poi.util.DefaultTempFileCreationStrategy;
+import org.apache.poi.util.TempFile;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 导出临时文件存储
+ * <p>
+ * 按配置顺序选择剩余空间充足的临时目录，创建文件前按 tempReserveMb 预留配额，写完后按实际大小修正，
+ * 文件关闭时删除并归还配额；配额不足时等待其他任务上传完成，超过 tempWaitSeconds 后失败。
+ * 写入期间每 {@value #CHECK_INTERVAL_SECONDS} 秒按打开文件的实际大小重新计算占用，
+ * 超出配额（至少保留一个文件）或目录剩余空间低于 tempMinFreeMb 时，停止最晚创建的文件所属的导出任务。
+ * 启动时清理宕机遗留的临时文件：只清理本类创建的 export- 前缀文件中超过最长任务时间的，
+ * 多个节点共用临时目录时不会删除其他节点执行中的文件；不清理断点目录和POI临时文件子目录。
+ * POI临时文件目录是整个JVM共用的设置，进程内其他POI调用也会写到该子目录，因此不计入配额、不由本类清理，
+ * 只受目录剩余空间检查约束
+ * </p>
+ */
+@Slf4j
+@Component
+public class ExportTempStorage {
+
+    /** 临时文件名前缀，启动清理时据此识别 */
+    private static final String FILE_PREFIX = "export-";
+
+    /** SXSSF行溢出文件、共享字符串等POI临时文件的子目录，JVM全局生效，不计入配额、不清理 */
+    private static final String POI_DIR = "poifiles";
+
+    /** 写入期间检查占用的间隔（秒） */
+    private static final long CHECK_INTERVAL_SECONDS = 5;
+
+    /** 未限制最长执行时间时，遗留文件的判断时长（秒） */
+    private static final long DEFAULT_ORPHAN_SECONDS = TimeUnit.DAYS.toSeconds(1);
+
+    /** 遗留文件判断时长在最长执行时间之外的余量（秒），覆盖写完后的上传时间 */
+    private static final long ORPHAN_MARGIN_SECONDS = TimeUnit.HOURS.toSeconds(1);
+
+    @Resource
+    private ExportSchedulerConfig exportSchedulerConfig;
+
+    /** 临时目录，按优先级排序 */
+    private final List<File> dirs = new ArrayList<>();
+
+    /** 配额上限（字节），0不限制 */
+    private long quota;
+
+    /** 目录最小剩余空间（字节） */
+    private long minFree;
+
+    /** 每个文件创建时预留的字节数 */
+    private long reserveBytes;
+
+    /** 最长等待时间（纳秒） */
+    private long maxWaitNanos;
+
+    /** 已预留字节数 */
+    private long used;
+
+    /** 打开中的临时文件 */
+    private final Set<ExportTempFile> openFiles = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService checker;
+
+    /** 使用显式锁而不是 synchronized，虚拟线程等待配额时不占用载体线程 */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition released = lock.newCondition();
+
+    /** 断点存储 */
+    private ExportCheckpointStore checkpointStore;
+
+    @PostConstruct
+    public void init() {
+        for (String path : StringUtils.split(exportSchedulerConfig.getTempDirs(), ',')) {
+            File dir = new File(path.trim());
+            if (!dir.exists() && !dir.mkdirs()) {
+                log.warn("Create export temp dir failed, dir:{}", dir.getPath());
+                continue;
+            }
+            dirs.add(dir);
+        }
+        if (dirs.isEmpty()) {
+            throw new IllegalStateException("No export temp dir available: " + exportSchedulerConfig.getTempDirs());
+        }
+        quota = exportSchedulerConfig.getTempQuotaMb() * 1024 * 1024;
+        minFree = exportSchedulerConfig.getTempMinFreeMb() * 1024 * 1024;
+        reserveBytes = exportSchedulerConfig.getTempReserveMb() * 1024 * 1024;
+        maxWaitNanos = TimeUnit.SECONDS.toNanos(exportSchedulerConfig.getTempWaitSeconds());
+        checkpointStore = new ExportCheckpointStore(exportSchedulerConfig.getCheckpointDir());
+        initPoiTempDir();
+        sweep();
+        Gauge.builder("export.temp.used", this, ExportTempStorage::getUsed).baseUnit("bytes").register(Metrics.globalRegistry);
+        Gauge.builder("export.temp.quota", this, s -> s.quota).baseUnit("bytes").register(Metrics.globalRegistry);
+        checker = Executors.newSingleThreadScheduledExecutor(new ExportThreadFactory("export-temp-"));
+        checker.scheduleWithFixedDelay(this::checkUsage, CHECK_INTERVAL_SECONDS, CHECK_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (checker != null) {
+            checker.shutdownNow();
+        }
+    }
+
+    /**
+     * 断点存储，断点目录独立于临时目录，重启时不清理
+     *
+     * @return 断点存储
+     */
+    public ExportCheckpointStore getCheckpointStore() {
+        return checkpointStore;
+    }
+
+    /**
+     * 创建临时文件并预留配额，配额不足时阻塞等待
+     *
+     * @param prefix 文件名前缀
+     * @param suffix 文件后缀，如 .xlsx、.zip
+     * @param handle 写入该文件的导出任务句柄，空间不足时据此停止任务；为null时只修正占用
+     * @return 临时文件，关闭时删除
+     * @throws SimpleException 配额等待超时、没有剩余空间充足的目录或创建文件失败时抛出
+     */
+    public ExportTempFile allocate(String prefix, String suffix, ExportJobHandle handle) {
+        acquire(reserveBytes);
+        try {
+            File dir = selectDir();
+            ExportTempFile tempFile = new ExportTempFile(this, FileUtil.createTempFile(FILE_PREFIX + prefix, suffix, dir), reserveBytes, handle);
+            openFiles.add(tempFile);
+            return tempFile;
+        } catch (IOException e) {
+            release(reserveBytes);
+            throw new SimpleException("Create template file failed.", e);
+        } catch (RuntimeException e) {
+            release(reserveBytes);
+            throw e;
+        }
+    }
+
+    /**
+     * 按配置顺序选择剩余空间充足的目录
+     */
+    private File selectDir() {
+        for (File dir : dirs) {
+            if (dir.getUsableSpace() - reserveBytes >= minFree) {
+                return dir;
+            }
+        }
+        throw new SimpleException("No export temp dir has enough free space.");
+    }
+
+    private void acquire(long bytes) {
+        long remaining = maxWaitNanos;
+        lock.lock();
+        try {
+            // 没有占用时大于配额的请求也放行
+            while (quota > 0 && used > 0 && used + bytes > quota) {
+                if (remaining <= 0) {
+                    log.warn("Export temp quota exhausted, used:{}, request:{}, quota:{}", used, bytes, quota);
+                    throw new SimpleException("Export temp storage quota exceeded, please try again later.");
+                }
+                remaining = released.awaitNanos(remaining);
+            }
+            used += bytes;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SimpleException("Interrupted while waiting for export temp storage.", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 按实际大小修正预留，不等待
+     *
+     * @param bytes 增加的字节数，为负数时归还
+     */
+    void adjust(long bytes) {
+        lock.lock();
+        try {
+            used = Math.max(0, used + bytes);
+            if (bytes < 0) {
+                released.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void release(long bytes) {
+        adjust(-bytes);
+    }
+
+    /**
+     * 文件关闭，不再检查占用
+     *
+     * @param tempFile 临时文件
+     */
+    void unregister(ExportTempFile tempFile) {
+        openFiles.remove(tempFile);
+    }
+
+    public long getUsed() {
+        lock.lock();
+        try {
+            return used;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 按实际大小重新计算占用，超出配额或目录剩余空间不足时停止最晚创建的文件所属的导出任务，每次最多停止一个
+     */
+    private void checkUsage() {
+        try {
+            List<ExportTempFile> files = new ArrayList<>(openFiles);
+            files.forEach(ExportTempFile::refresh);
+            long total = getUsed();
+            boolean overQuota = quota > 0 && total > quota && files.size() > 1;
+            boolean lowSpace = dirs.stream().anyMatch(dir -> dir.getUsableSpace() < minFree);
+            if (!overQuota && !lowSpace) {
+                return;
+            }
+            files.stream()
+                    .filter(f -> f.getHandle() != null && !f.getHandle().isAborted())
+                    .max(Comparator.comparingLong(ExportTempFile::getCreateNanos))
+                    .ifPresent(f -> {
+                        log.warn("Export temp storage exhausted, abort export, exportRecordId:{}, used:{}, quota:{}, lowSpace:{}",
+                                f.getHandle().getExportRecordId(), total, quota, lowSpace);
+                        f.getHandle().abort("Export temp storage exhausted, please try again later.");
+                    });
+        } catch (Exception e) {
+            log.error("Check export temp usage error", e);
+        }
+    }
+
+    /**
+     * SXSSF的行溢出文件写到首个临时目录的 poifiles 子目录，不占用 java.io.tmpdir；EasyExcel 创建写入器时会重设POI临时目录，两处都指定。
+     * 两处都是JVM全局设置，进程内所有POI调用都会使用该子目录，见 export-scheduler.tempDirs 配置说明
+     */
+    private void initPoiTempDir() {
+        File dir = new File(dirs.get(0), POI_DIR);
+        if (!dir.exists() && !dir.mkdirs()) {
+            log.warn("Create poi temp dir failed, dir:{}", dir.getPath());
+            return;
+        }
+        FileUtils.setPoiFilesPath(dir.getPath() + File.separator);
+        TempFile.setTempFileCreationStrategy(new DefaultTempFileCreationStrategy(dir));
+        log.info("Set JVM-wide poi temp dir, dir:{}", dir.getPath());
+    }
+
+    /**
+     * 清理宕机遗留的临时文件
+     * <p>
+     * 临时目录可能与其他节点共用，只删除最后修改时间早于 最长执行时间 + 余量 的 export- 前缀文件：
+     * 超过最长执行时间的任务已被停止，这些文件不属于任何执行中的任务。POI临时文件子目录由其他POI调用共用，不清理
+     * </p>
+     */
+    private void sweep() {
+        long maxDurationSeconds = exportSchedulerConfig.getMaxDurationSeconds();
+        Map<String, Long> taskMaxDurationSeconds = exportSchedulerConfig.getTaskMaxDurationSeconds();
+        if (maxDurationSeconds > 0 && taskMaxDurationSeconds != null) {
+            for (Long seconds : taskMaxDurationSeconds.values()) {
+                maxDurationSeconds = seconds == null || seconds <= 0 ? 0 : Math.max(maxDurationSeconds, seconds);
+                if (maxDurationSeconds == 0) {
+                    break;
+                }
+            }
+        }
+        long orphanSeconds = maxDurationSeconds > 0 ? maxDurationSeconds + ORPHAN_MARGIN_SECONDS : DEFAULT_ORPHAN_SECONDS;
+        long deadline = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(orphanSeconds);
+        for (File dir : dirs) {
+            File[] files = dir.listFiles(f -> f.isFile() && !POI_DIR.equals(f.getName())
+                    && f.getName().startsWith(FILE_PREFIX) && f.lastModified() < deadline);
+            if (files == null) {
+                continue;
+            }
+            for (File file : files) {
+                try {
+                    Files.deleteIfExists(file.toPath());
+                    log.info("Delete orphan export temp file, file:{}", file.getPath());
+                } catch (IOException e) {
+                    log.warn("Delete orphan export temp file error, file:{}", file.getPath(), e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 导入模板缓存
+ * <p>
+ * 缓存渲染好的XLSX模板，key: 模型类 + 语言 + 下拉数据版本。下拉数据变化时调用方更换版本号，旧版本按LRU淘汰；
+ * 命中时直接输出字节，不再查询下拉数据、不再生成样例行和备注
+ * </p>
+ */
+public final class ExportTemplateCache {
+
+    /** 最大缓存条数，超出后按LRU淘汰 */
+    private static final int MAX_SIZE = 64;
+
+    private static final Map<TemplateKey, Template> CACHE = Collections.synchronizedMap(
+            new LinkedHashMap<TemplateKey, Template>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<TemplateKey, Template> eldest) {
+                    return size() > MAX_SIZE;
+                }
+            });
+
+    private ExportTemplateCache() {
+    }
+
+    /**
+     * 获取模板，不存在时通过 renderer 渲染并缓存
+     *
+     * @param clazz    模型类
+     * @param lang     语言标识
+     * @param version  下拉数据版本，为null时视为无下拉数据
+     * @param renderer 模板渲染函数
+     * @return 已渲染的模板
+     */
+    public static Template get(Class<?> clazz, String lang, String version, Supplier<Template> renderer) {
+        TemplateKey key = new TemplateKey(clazz, lang, version == null ? "" : version);
+        Template template = CACHE.get(key);
+        if (template == null) {
+            // 渲染过程无副作用，并发下重复渲染可接受，避免持锁查询下拉数据
+            template = renderer.get();
+            CACHE.put(key, template);
+        }
+        return template;
+    }
+
+    /**
+     * 清空缓存
+     */
+    public static void clear() {
+        CACHE.clear();
+    }
+
+    /**
+     * 已渲染的模板
+     */
+    @Getter
+    @AllArgsConstructor
+    public static final class Template {
+
+        /** 文件名 */
+        private final String fileName;
+
+        /** XLSX文件内容，只读 */
+        private final byte[] content;
+    }
+
+    /**
+     * 模板缓存key
+     */
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static final class TemplateKey {
+        private final Class<?> clazz;
+        private final String lang;
+        private final String version;
+    }
+}
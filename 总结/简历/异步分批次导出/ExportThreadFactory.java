@@ -0,0 +1,25 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 导出内部线程工厂，创建带名称前缀的守护线程
+ */
+public class ExportThreadFactory implements ThreadFactory {
+
+    private final String namePrefix;
+
+    private final AtomicInteger threadNum = new AtomicInteger(1);
+
+    public ExportThreadFactory(String namePrefix) {
+        this.namePrefix = namePrefix;
+    }
+
+    @Override
+    public Thread newThread(Runnable r) {
+        Thread thread = new Thread(r, namePrefix + threadNum.getAndIncrement());
+        thread.setDaemon(true);
+        return thread;
+    }
+}
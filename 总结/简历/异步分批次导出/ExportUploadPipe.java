@@ -0,0 +1,205 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 流式上传的有界内存管道，写入线程编码Excel，上传线程读取并上传
+ * <p>
+ * 与 PipedInputStream 不同，写入失败或取消时调用 {@link #fail(Throwable)}，读取端立即抛出IOException而不是读到流结束，
+ * 上传请求随之中断，不会把截断的文件当作完整文件提交；读取端关闭后写入端抛出IOException。
+ * 使用 ReentrantLock/Condition 等待，虚拟线程阻塞时不占用载体线程
+ * </p>
+ */
+public class ExportUploadPipe {
+
+    private final byte[] buffer;
+
+    /** 下一个读取位置 */
+    private int readPos;
+
+    /** 已缓冲的字节数 */
+    private int count;
+
+    private boolean writerClosed;
+
+    private boolean readerClosed;
+
+    /** 写入端失败原因，为null时未失败 */
+    private Throwable failure;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition notEmpty = lock.newCondition();
+
+    private final Condition notFull = lock.newCondition();
+
+    private final InputStream inputStream = new PipeInputStream();
+
+    private final OutputStream outputStream = new PipeOutputStream();
+
+    /**
+     * @param bufferSize 缓冲区大小（字节），缓冲区满时写入线程阻塞
+     */
+    public ExportUploadPipe(int bufferSize) {
+        this.buffer = new byte[bufferSize];
+    }
+
+    /**
+     * 读取端，由上传线程读取并关闭
+     *
+     * @return 输入流
+     */
+    public InputStream getInputStream() {
+        return inputStream;
+    }
+
+    /**
+     * 写入端，正常写完时关闭，读取端随后读到流结束
+     *
+     * @return 输出流
+     */
+    public OutputStream getOutputStream() {
+        return outputStream;
+    }
+
+    /**
+     * 写入端失败，读取端不再返回已缓冲的数据，下一次读取抛出IOException
+     *
+     * @param cause 失败原因
+     */
+    public void fail(Throwable cause) {
+        lock.lock();
+        try {
+            if (failure == null) {
+                failure = cause;
+            }
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        lock.lock();
+        try {
+            while (count == 0 && !writerClosed && failure == null && !readerClosed) {
+                await(notEmpty);
+            }
+            if (failure != null) {
+                throw new IOException("Export stream aborted.", failure);
+            }
+            if (readerClosed) {
+                throw new IOException("Pipe closed.");
+            }
+            if (count == 0) {
+                return -1;
+            }
+            int n = Math.min(len, Math.min(count, buffer.length - readPos));
+            System.arraycopy(buffer, readPos, b, off, n);
+            readPos = (readPos + n) % buffer.length;
+            count -= n;
+            notFull.signalAll();
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void write(byte[] b, int off, int len) throws IOException {
+        lock.lock();
+        try {
+            while (len > 0) {
+                while (count == buffer.length && !readerClosed && failure == null) {
+                    await(notFull);
+                }
+                if (readerClosed || failure != null || writerClosed) {
+                    throw new IOException("Upload stream closed.", failure);
+                }
+                int writePos = (readPos + count) % buffer.length;
+                int n = Math.min(len, Math.min(buffer.length - count, buffer.length - writePos));
+                System.arraycopy(b, off, buffer, writePos, n);
+                count += n;
+                off += n;
+                len -= n;
+                notEmpty.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void closeWriter() {
+        lock.lock();
+        try {
+            writerClosed = true;
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void closeReader() {
+        lock.lock();
+        try {
+            readerClosed = true;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void await(Condition condition) throws InterruptedIOException {
+        try {
+            condition.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for export stream.");
+        }
+    }
+
+    private final class PipeInputStream extends InputStream {
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return ExportUploadPipe.this.read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return ExportUploadPipe.this.read(b, off, len);
+        }
+
+        @Override
+        public void close() {
+            closeReader();
+        }
+    }
+
+    private final class PipeOutputStream extends OutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            ExportUploadPipe.this.write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            ExportUploadPipe.this.write(b, off, len);
+        }
+
+        @Override
+        public void close() {
+            closeWriter();
+        }
+    }
+}
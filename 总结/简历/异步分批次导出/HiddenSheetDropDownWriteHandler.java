@@ -0,0 +1,122 @@
+package com.oppo.corehrpt.basic.export.strategy;
+
+import com.alibaba.excel.write.handler.SheetWriteHandler;
+import com.alibaba.excel.write.metadata.holder.WriteSheetHolder;
+import com.alibaba.excel.write.metadata.holder.WriteWorkbookHolder;
+import lombok.Data;
+import lombok.experimental.Accessors;
+import org.apache.poi.ss.usermodel.DataValidation;
+import org.apache.poi.ss.usermodel.DataValidationConstraint;
+import org.apache.poi.ss.usermodel.DataValidationHelper;
+import org.apache.poi.ss.usermodel.Name;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.CellRangeAddressList;
+import org.apache.poi.ss.util.CellReference;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 下拉框处理器
+ * <p>
+ * 选项拼接后不超过Excel内联列表的255个字符时直接写入数据校验；超过时写入隐藏的引用Sheet页，每个下拉框一列，
+ * 数据校验通过名称引用该列，不受内联长度限制，选项只存一份，文件更小
+ * </p>
+ */
+public class HiddenSheetDropDownWriteHandler implements SheetWriteHandler {
+
+    /** 隐藏引用Sheet页名称 */
+    private static final String REFERENCE_SHEET_NAME = "_dropdown";
+
+    /** Excel内联列表最大长度 */
+    private static final int INLINE_LIST_MAX_LENGTH = 255;
+
+    private final List<DropDownInfo> dropDownInfos;
+
+    public HiddenSheetDropDownWriteHandler(List<DropDownInfo> dropDownInfos) {
+        this.dropDownInfos = dropDownInfos;
+    }
+
+    @Override
+    public void beforeSheetCreate(WriteWorkbookHolder writeWorkbookHolder, WriteSheetHolder writeSheetHolder) {
+    }
+
+    @Override
+    public void afterSheetCreate(WriteWorkbookHolder writeWorkbookHolder, WriteSheetHolder writeSheetHolder) {
+        Sheet sheet = writeSheetHolder.getSheet();
+        Workbook workbook = writeWorkbookHolder.getWorkbook();
+        DataValidationHelper helper = sheet.getDataValidationHelper();
+        List<List<String>> referenceColumns = new ArrayList<>();
+        Sheet referenceSheet = null;
+        for (DropDownInfo info : dropDownInfos) {
+            if (info.getValueList() == null || info.getValueList().isEmpty()) {
+                continue;
+            }
+            DataValidationConstraint constraint;
+            if (String.join(",", info.getValueList()).length() <= INLINE_LIST_MAX_LENGTH) {
+                constraint = helper.createExplicitListConstraint(info.getValueList().toArray(new String[0]));
+            } else {
+                if (referenceSheet == null) {
+                    // 名称引用的Sheet页须先存在
+                    referenceSheet = workbook.createSheet(REFERENCE_SHEET_NAME);
+                    workbook.setSheetHidden(workbook.getSheetIndex(referenceSheet), true);
+                }
+                String colName = CellReference.convertNumToColString(referenceColumns.size());
+                referenceColumns.add(info.getValueList());
+                Name name = workbook.createName();
+                name.setNameName(REFERENCE_SHEET_NAME + colName);
+                name.setRefersToFormula("'" + REFERENCE_SHEET_NAME + "'!$" + colName + "$1:$" + colName + "$" + info.getValueList().size());
+                constraint = helper.createFormulaListConstraint(name.getNameName());
+            }
+            CellRangeAddressList addressList = new CellRangeAddressList(info.getFirstRow(), info.getEndRow(), info.getFirstCol(), info.getLastCol());
+            DataValidation validation = helper.createValidation(constraint, addressList);
+            validation.setSuppressDropDownArrow(true);
+            validation.setShowErrorBox(true);
+            sheet.addValidationData(validation);
+        }
+        if (referenceSheet != null) {
+            writeReferenceSheet(referenceSheet, referenceColumns);
+        }
+    }
+
+    /**
+     * 写入隐藏的引用Sheet页，每个下拉框一列；按行顺序写入，兼容SXSSF只能顺序写行
+     */
+    private static void writeReferenceSheet(Sheet referenceSheet, List<List<String>> referenceColumns) {
+        int rowCount = referenceColumns.stream().mapToInt(List::size).max().orElse(0);
+        for (int i = 0; i < rowCount; i++) {
+            Row row = referenceSheet.createRow(i);
+            for (int col = 0; col < referenceColumns.size(); col++) {
+                List<String> valueList = referenceColumns.get(col);
+                if (i < valueList.size()) {
+                    row.createCell(col).setCellValue(valueList.get(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * 下拉框信息
+     */
+    @Data
+    @Accessors(chain = true)
+    public static class DropDownInfo {
+
+        /** 起始列 */
+        private int firstCol;
+
+        /** 结束列 */
+        private int lastCol;
+
+        /** 起始行 */
+        private int firstRow;
+
+        /** 结束行 */
+        private int endRow;
+
+        /** 下拉选项 */
+        private List<String> valueList;
+    }
+}
@@ -0,0 +1,22 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+import java.util.List;
+
+/**
+ * 导入批次处理器，接收一批已解析、校验通过的数据，如批量插入
+ * <p>
+ * 多个批次在导入线程中并行调用，实现须线程安全；抛出异常时整批数据记为失败行
+ * </p>
+ *
+ * @param <T> 数据模型类型
+ */
+@FunctionalInterface
+public interface ImportBatchSink<T> {
+
+    /**
+     * 处理一批数据
+     *
+     * @param rows 已解析、校验通过的数据，不为空
+     */
+    void accept(List<T> rows);
+}
@@ -0,0 +1,191 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+import com.alibaba.excel.EasyExcel;
+import com.alibaba.excel.ExcelWriter;
+import com.alibaba.excel.context.AnalysisContext;
+import com.alibaba.excel.event.AnalysisEventListener;
+import com.alibaba.excel.exception.ExcelAnalysisException;
+import com.alibaba.excel.support.ExcelTypeEnum;
+import com.oppo.corehrpt.basic.enums.LanguageEnum;
+import com.oppo.corehrpt.basic.export.annotation.ExcelModel;
+import com.oppo.corehrpt.basic.export.entity.ExcelModelEntity;
+import com.oppo.corehrpt.basic.export.entity.ExportOptions;
+import com.oppo.corehrpt.basic.export.entity.ImportOptions;
+import com.oppo.gcommon.starter.base.context.UserContextHolder;
+import com.oppo.gcommon.starter.base.exception.SimpleException;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Excel导入助手工具类，提供与 ExportHelper2 对应的异步导入功能，支持数万行以上的XLSX/CSV导入
+ * <p>
+ * 上传文件先复制到导出临时目录，请求线程立即返回；异步线程流式读取，按 @ExcelColumn 的 title、titleEn 匹配列，
+ * 分批并行解析、校验后交给批次处理器。任务沿用导出记录（createExportRecord/updateExportRecord）跟踪进度，
+ * 完成后上传结果文件，列出失败行的原始数据和错误信息
+ * </p>
+ */
+public class ImportHelper {
+
+    private static final String CSV_SUFFIX = ".csv";
+
+    private ImportHelper() {
+    }
+
+    /**
+     * 异步导入Excel（基础版本）
+     *
+     * @param clazz 数据模型类，必须包含@ExcelModel和@ExcelColumn注解，须有无参构造方法
+     * @param file  上传的XLSX/XLS/CSV文件
+     * @param sink  批次处理器，如批量插入，须线程安全
+     */
+    public static <T> void asyncImportExcel(Class<T> clazz, MultipartFile file, ImportBatchSink<T> sink) {
+        asyncImportExcel(clazz, file, sink, null, new ImportOptions());
+    }
+
+    /**
+     * 异步导入Excel（可配置版本）
+     *
+     * @param clazz     数据模型类，必须包含@ExcelModel和@ExcelColumn注解，须有无参构造方法
+     * @param file      上传的XLSX/XLS/CSV文件
+     * @param sink      批次处理器，如批量插入，须线程安全
+     * @param validator 行校验器，可为null
+     * @param options   导入选项，如批次大小、并行数
+     */
+    public static <T> void asyncImportExcel(Class<T> clazz, MultipartFile file, ImportBatchSink<T> sink,
+                                            ImportRowValidator<T> validator, ImportOptions options) {
+        ExcelModelEntity entity = ExportHelper2.extractExcelModel(clazz, null);
+        String originalName = StringUtils.defaultIfBlank(file.getOriginalFilename(), entity.getFileName());
+        boolean csv = StringUtils.endsWithIgnoreCase(originalName, CSV_SUFFIX);
+        // 保留原扩展名，xls 与 xlsx 按各自格式读取
+        ExcelTypeEnum excelType = StringUtils.endsWithIgnoreCase(originalName, ExcelTypeEnum.XLS.getValue()) ? ExcelTypeEnum.XLS : ExcelTypeEnum.XLSX;
+        // 导入记录的文件为结果文件
+        entity.setFileName(StringUtils.substringBeforeLast(originalName, ".")
+                + (LanguageEnum.isCn() ? "-导入结果" : "-import-result") + ExcelTypeEnum.XLSX.getValue());
+        int headRowNumber = options.getHeadRowNumber() > 0 ? options.getHeadRowNumber() : getDefaultHeadRowNumber(clazz);
+
+        // 请求结束后上传文件会被清理，先复制到临时目录
+        ExportTempFile inputFile = ExportHelper2.getTempFile(entity.getTaskType(), UserContextHolder.getUserAccount(), csv ? CSV_SUFFIX : excelType.getValue());
+        try {
+            file.transferTo(inputFile.getFile());
+            ExportHelper2.submitExport(entity, null, new ExportOptions(), ctx -> {
+                try (ExportTempFile input = inputFile) {
+                    return importAndUploadResult(ctx, new ImportJob<>(ctx, clazz, sink, validator, options), input.getFile(), csv ? null : excelType, headRowNumber);
+                }
+            });
+        } catch (IOException e) {
+            inputFile.close();
+            throw new SimpleException("Save import file failed.", e);
+        } catch (RuntimeException e) {
+            inputFile.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 读取导入文件并上传结果文件
+     *
+     * @param excelType Excel格式，CSV文件为null
+     * @return 结果文件ID
+     */
+    private static String importAndUploadResult(ExportJobContext ctx, ImportJob<?> job, File file, ExcelTypeEnum excelType, int headRowNumber) {
+        try {
+            if (excelType == null) {
+                readCsv(job, file, headRowNumber);
+            } else {
+                readExcel(job, file, excelType, headRowNumber);
+            }
+            job.finish();
+            // 成功、失败行数写入导入记录，有失败行时记录为部分成功或失败
+            ctx.setImportResult(job.getSuccessCount(), job.getErrorCount());
+        } catch (CompletionException | ExcelAnalysisException e) {
+            job.abort();
+            // 取消、超时在工作线程或读取监听器中抛出，还原后交给导出记录标记状态
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        } catch (RuntimeException e) {
+            job.abort();
+            throw e;
+        }
+
+        String userId = UserContextHolder.getUserAccount();
+        try (ExportTempFile resultFile = ExportHelper2.getTempFile(ctx, userId, ExcelTypeEnum.XLSX.getValue())) {
+            ExcelWriter writer = ExportHelper2.getExcelWriter(resultFile.getFile());
+            try {
+                writer.write(job.getResultRows(), EasyExcel.writerSheet(ctx.getEntity().getSheetName()).head(job.getResultHead()).build());
+            } finally {
+                writer.finish();
+            }
+            ctx.getMetrics().recordBytes(resultFile.settle());
+            return ExportHelper2.uploadFile(userId, resultFile.getFile(), ctx.getMetrics());
+        }
+    }
+
+    private static void readExcel(ImportJob<?> job, File file, ExcelTypeEnum excelType, int headRowNumber) {
+        EasyExcel.read(file, new AnalysisEventListener<Map<Integer, String>>() {
+            @Override
+            public void invokeHeadMap(Map<Integer, String> headMap, AnalysisContext context) {
+                // 多行表头时以最后一行为准
+                if (context.readRowHolder().getRowIndex() == headRowNumber - 1) {
+                    job.onHead(toList(headMap));
+                }
+            }
+
+            @Override
+            public void invoke(Map<Integer, String> data, AnalysisContext context) {
+                job.onRow(context.readRowHolder().getRowIndex() + 1, toList(data));
+            }
+
+            @Override
+            public void doAfterAllAnalysed(AnalysisContext context) {
+            }
+        }).excelType(excelType).headRowNumber(headRowNumber).sheet().doRead();
+    }
+
+    private static void readCsv(ImportJob<?> job, File file, int headRowNumber) {
+        try (CsvImportReader reader = new CsvImportReader(new FileInputStream(file))) {
+            int rowNum = 0;
+            List<String> record;
+            while ((record = reader.readRecord()) != null) {
+                rowNum++;
+                if (rowNum < headRowNumber) {
+                    continue;
+                }
+                if (rowNum == headRowNumber) {
+                    job.onHead(record);
+                } else {
+                    job.onRow(rowNum, record);
+                }
+            }
+        } catch (IOException e) {
+            throw new SimpleException("Read csv file failed.", e);
+        }
+    }
+
+    /**
+     * 模板带备注时为备注行 + 表头行
+     */
+    private static int getDefaultHeadRowNumber(Class<?> clazz) {
+        ExcelModel excelModel = clazz.getAnnotation(ExcelModel.class);
+        return StringUtils.isAllBlank(excelModel.remark(), excelModel.remarkEn()) ? 1 : 2;
+    }
+
+    private static List<String> toList(Map<Integer, String> map) {
+        if (map.isEmpty()) {
+            return Collections.emptyList();
+        }
+        int size = Collections.max(map.keySet()) + 1;
+        List<String> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(map.get(i));
+        }
+        return list;
+    }
+}
@@ -0,0 +1,357 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+import com.oppo.corehrpt.basic.enums.LanguageEnum;
+import com.oppo.corehrpt.basic.export.annotation.ExcelColumn;
+import com.oppo.corehrpt.basic.export.entity.ImportOptions;
+import com.oppo.corehrpt.basic.util.AsyncRequestTokenHelper;
+import com.oppo.gcommon.starter.base.bean.LoginUserBean;
+import com.oppo.gcommon.starter.base.context.UserContextHolder;
+import com.oppo.gcommon.starter.base.exception.SimpleException;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.context.i18n.LocaleContextHolder;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 导入任务
+ * <p>
+ * 读取线程逐行接收单元格文本，按 batchSize 分批交给工作线程并行解析、校验和调用批次处理器；
+ * 在途批次数不超过并行数的2倍，读取快于处理时读取线程阻塞，内存中只保留有限的批次。
+ * 失败行（解析失败、校验失败、批次处理器异常）保留原始单元格和错误信息，最后写入结果文件
+ * </p>
+ *
+ * @param <T> 数据模型类型
+ */
+@Slf4j
+public class ImportJob<T> {
+
+    /** 统一的写入句柄签名：(Object,Object)void */
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final ExportJobContext ctx;
+
+    private final Class<T> clazz;
+
+    private final ImportBatchSink<T> sink;
+
+    private final ImportRowValidator<T> validator;
+
+    private final ImportOptions options;
+
+    /** 模型列，按 @ExcelColumn.index 排序 */
+    private final List<ImportColumn> columns;
+
+    /** 文件列号 -> 模型列，未匹配的列为null */
+    private List<ImportColumn> mapping;
+
+    /** 文件表头，写入结果文件 */
+    private List<String> headList;
+
+    /** 共用导入线程池上的工作执行器，同时处理的批次数不超过并行数 */
+    private final ExportLimitedExecutor executor;
+
+    /** 在途批次许可 */
+    private final Semaphore inFlight;
+
+    private final List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+    /** 失败行，按行号排序后写入结果文件 */
+    private final List<ImportError> errors = new ArrayList<>();
+
+    private final AtomicLong errorCount = new AtomicLong();
+
+    private final AtomicLong successCount = new AtomicLong();
+
+    private List<ImportRow> batch;
+
+    private long readCount;
+
+    private final LoginUserBean loginUserBean = UserContextHolder.get();
+
+    private final Locale locale = LocaleContextHolder.getLocale();
+
+    public ImportJob(ExportJobContext ctx, Class<T> clazz, ImportBatchSink<T> sink, ImportRowValidator<T> validator, ImportOptions options) {
+        this.ctx = ctx;
+        this.clazz = clazz;
+        this.sink = sink;
+        this.validator = validator;
+        this.options = options;
+        this.columns = buildColumns(clazz);
+        int parallelism = options.getParallelism() > 0 ? options.getParallelism() : Math.min(Runtime.getRuntime().availableProcessors(), 8);
+        this.executor = ExportHelper2.newImportExecutor(parallelism);
+        this.inFlight = new Semaphore(parallelism * 2);
+        this.batch = new ArrayList<>(options.getBatchSize());
+    }
+
+    /**
+     * 接收表头，按 @ExcelColumn 的 title、titleEn 匹配列；一列都未匹配时按模型列顺序对应
+     *
+     * @param head 表头单元格文本
+     */
+    public void onHead(List<String> head) {
+        List<ImportColumn> matched = new ArrayList<>(head.size());
+        boolean anyMatched = false;
+        for (String title : head) {
+            ImportColumn column = null;
+            String text = StringUtils.trimToEmpty(title);
+            for (ImportColumn c : columns) {
+                if (text.equals(c.title) || text.equals(c.titleEn)) {
+                    column = c;
+                    anyMatched = true;
+                    break;
+                }
+            }
+            matched.add(column);
+        }
+        this.mapping = anyMatched ? matched : new ArrayList<>(columns);
+        this.headList = head;
+    }
+
+    /**
+     * 接收一行数据，攒满一批后提交并行处理
+     *
+     * @param rowNum 行号（从1开始，与Excel一致）
+     * @param cells  单元格文本
+     */
+    public void onRow(int rowNum, List<String> cells) {
+        if (cells.stream().allMatch(StringUtils::isBlank)) {
+            return;
+        }
+        if (mapping == null) {
+            // 没有表头行
+            onHead(new ArrayList<>());
+        }
+        batch.add(new ImportRow(rowNum, cells));
+        readCount++;
+        if (batch.size() >= options.getBatchSize()) {
+            submitBatch();
+        }
+    }
+
+    /**
+     * 处理剩余数据并等待所有批次完成
+     */
+    public void finish() {
+        if (!batch.isEmpty()) {
+            submitBatch();
+        }
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } finally {
+            executor.shutdownNow();
+        }
+        errors.sort(Comparator.comparingInt(e -> e.row.rowNum));
+        log.info("Import finished, exportRecordId:{}, rows:{}, success:{}, failed:{}",
+                ctx.getExportRecordId(), readCount, successCount.get(), errorCount.get());
+    }
+
+    /**
+     * 出错时取消未开始的批次，执行中的批次在下一次取消检查时停止
+     */
+    public void abort() {
+        ctx.getHandle().abort();
+        executor.shutdownNow();
+    }
+
+    /**
+     * 结果文件表头：原表头 + 错误信息
+     *
+     * @return 表头
+     */
+    public List<List<String>> getResultHead() {
+        List<List<String>> head = new ArrayList<>();
+        List<String> titles = headList == null || headList.isEmpty() ? getColumnTitles() : headList;
+        titles.forEach(t -> head.add(Collections.singletonList(StringUtils.defaultString(t))));
+        head.add(Collections.singletonList(LanguageEnum.isCn() ? "错误信息" : "Error"));
+        return head;
+    }
+
+    /**
+     * 结果文件数据：失败行的原始单元格 + 错误信息
+     *
+     * @return 数据行
+     */
+    public List<List<String>> getResultRows() {
+        int width = getResultHead().size() - 1;
+        List<List<String>> rows = new ArrayList<>(errors.size());
+        for (ImportError error : errors) {
+            List<String> row = new ArrayList<>(width + 1);
+            for (int i = 0; i < width; i++) {
+                row.add(i < error.row.cells.size() ? error.row.cells.get(i) : "");
+            }
+            row.add(error.message);
+            rows.add(row);
+        }
+        long truncated = errorCount.get() - errors.size();
+        if (truncated > 0) {
+            // 超出 maxErrors 的失败行不保留，末尾注明条数
+            List<String> row = new ArrayList<>(Collections.nCopies(width, ""));
+            row.add(LanguageEnum.isCn() ? "另有 " + truncated + " 条错误未列出" : truncated + " more errors truncated");
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    public long getSuccessCount() {
+        return successCount.get();
+    }
+
+    public long getErrorCount() {
+        return errorCount.get();
+    }
+
+    private void submitBatch() {
+        ctx.getHandle().check(readCount);
+        List<ImportRow> rows = batch;
+        batch = new ArrayList<>(options.getBatchSize());
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SimpleException("Import interrupted.", e);
+        }
+        futures.add(executor.supply(() -> {
+            UserContextHolder.setUserInfo(loginUserBean);
+            LocaleContextHolder.setLocale(locale);
+            AsyncRequestTokenHelper.setLang(locale.toLanguageTag());
+            try {
+                processBatch(rows);
+                return null;
+            } finally {
+                inFlight.release();
+            }
+        }));
+    }
+
+    private void processBatch(List<ImportRow> rows) {
+        ctx.getHandle().check(readCount);
+        long start = System.nanoTime();
+        List<T> validList = new ArrayList<>(rows.size());
+        List<ImportRow> validRows = new ArrayList<>(rows.size());
+        for (ImportRow row : rows) {
+            String message = null;
+            T target = null;
+            try {
+                target = clazz.newInstance();
+                message = fill(target, row.cells);
+                if (message == null && validator != null) {
+                    message = validator.validate(target);
+                }
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Unable to instantiate " + clazz.getName(), e);
+            } catch (RuntimeException e) {
+                message = StringUtils.defaultIfBlank(e.getMessage(), e.getClass().getSimpleName());
+            }
+            if (message == null) {
+                validList.add(target);
+                validRows.add(row);
+            } else {
+                addError(row, message);
+            }
+        }
+        ctx.getMetrics().recordConvert(System.nanoTime() - start);
+        if (!validList.isEmpty()) {
+            try {
+                sink.accept(validList);
+                successCount.addAndGet(validList.size());
+            } catch (RuntimeException e) {
+                log.warn("Import batch failed, exportRecordId:{}, firstRow:{}", ctx.getExportRecordId(), validRows.get(0).rowNum, e);
+                String message = StringUtils.defaultIfBlank(e.getMessage(), e.getClass().getSimpleName());
+                validRows.forEach(row -> addError(row, message));
+            }
+        }
+        ctx.getProgress().onPage(rows.size(), 1);
+    }
+
+    /**
+     * 解析单元格并写入字段
+     *
+     * @return 错误信息，全部成功返回null
+     */
+    private String fill(T target, List<String> cells) {
+        StringBuilder message = null;
+        for (int i = 0; i < cells.size() && i < mapping.size(); i++) {
+            ImportColumn column = mapping.get(i);
+            String text = StringUtils.trimToNull(cells.get(i));
+            if (column == null || text == null) {
+                continue;
+            }
+            try {
+                column.setter.invokeExact((Object) target, column.parser.parse(text));
+            } catch (Throwable e) {
+                message = message == null ? new StringBuilder() : message.append("; ");
+                if (LanguageEnum.isCn()) {
+                    message.append(column.title).append("格式不正确: ").append(text);
+                } else {
+                    message.append("Invalid ").append(column.titleEn).append(": ").append(text);
+                }
+            }
+        }
+        return message == null ? null : message.toString();
+    }
+
+    private void addError(ImportRow row, String message) {
+        if (errorCount.incrementAndGet() <= options.getMaxErrors()) {
+            synchronized (errors) {
+                errors.add(new ImportError(row, message));
+            }
+        }
+    }
+
+    private List<String> getColumnTitles() {
+        List<String> titles = new ArrayList<>(columns.size());
+        columns.forEach(c -> titles.add(LanguageEnum.isCn() ? c.title : c.titleEn));
+        return titles;
+    }
+
+    private static List<ImportColumn> buildColumns(Class<?> clazz) {
+        List<Field> fieldList = ExportHelper2.extractSortFields(clazz.getDeclaredFields(), null, null);
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        List<ImportColumn> columnList = new ArrayList<>(fieldList.size());
+        for (Field field : fieldList) {
+            try {
+                field.setAccessible(true);
+                MethodHandle setter = lookup.unreflectSetter(field).asType(SETTER_TYPE);
+                ExcelColumn excelColumn = field.getAnnotation(ExcelColumn.class);
+                String titleEn = StringUtils.isBlank(excelColumn.titleEn()) ? excelColumn.title() : excelColumn.titleEn();
+                columnList.add(new ImportColumn(excelColumn.title(), titleEn, setter, ExcelValueParsers.resolve(field)));
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Unable to access field " + clazz.getName() + "." + field.getName(), e);
+            }
+        }
+        return columnList;
+    }
+
+    @AllArgsConstructor
+    private static final class ImportColumn {
+        private final String title;
+        private final String titleEn;
+        private final MethodHandle setter;
+        private final ExcelValueParser parser;
+    }
+
+    @AllArgsConstructor
+    private static final class ImportRow {
+        private final int rowNum;
+        private final List<String> cells;
+    }
+
+    @AllArgsConstructor
+    private static final class ImportError {
+        private final ImportRow row;
+        private final String message;
+    }
+}
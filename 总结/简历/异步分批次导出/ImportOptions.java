@@ -0,0 +1,35 @@
+package com.oppo.corehrpt.basic.export.entity;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * 异步导入选项
+ */
+@Data
+@Accessors(chain = true)
+public class ImportOptions {
+
+    /**
+     * 每批行数，每批解析、校验后交给批次处理器
+     */
+    private int batchSize = 1000;
+
+    /**
+     * 解析、校验和批次处理的并行数，0表示取 min(cpu数量, 8)
+     */
+    private int parallelism;
+
+    /**
+     * 表头行数，最后一行表头用于按标题匹配列<br/>
+     * <p>
+     * 0: 自动（默认），模型有备注时为2（备注行 + 表头行，与导入模板一致），否则为1
+     * </p>
+     */
+    private int headRowNumber;
+
+    /**
+     * 错误结果文件最多记录的失败行数，超出部分只计数
+     */
+    private int maxErrors = 10000;
+}
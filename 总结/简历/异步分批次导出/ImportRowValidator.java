@@ -0,0 +1,18 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+/**
+ * 导入行校验器，在导入线程中并行调用，实现须线程安全
+ *
+ * @param <T> 数据模型类型
+ */
+@FunctionalInterface
+public interface ImportRowValidator<T> {
+
+    /**
+     * 校验一行数据
+     *
+     * @param row 已解析的数据
+     * @return 错误信息，校验通过返回null
+     */
+    String validate(T row);
+}
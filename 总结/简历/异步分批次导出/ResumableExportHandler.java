@@ -0,0 +1,58 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+/**
+ * 可断点续传的导出处理器
+ * <p>
+ * 以Spring Bean注册，节点重启后按任务类型找回处理器，用持久化的查询条件和游标key继续查询剩余数据。
+ * 游标key以字符串保存，如主键ID的字符串形式
+ * </p>
+ *
+ * @param <T> 数据模型类型
+ * @param <Q> 查询条件类型，须可JSON序列化
+ */
+public interface ResumableExportHandler<T, Q> {
+
+    /**
+     * 任务类型，与数据模型 @ExcelModel.taskType 一致
+     *
+     * @return 任务类型
+     */
+    String taskType();
+
+    /**
+     * 数据模型类
+     *
+     * @return 数据模型类，必须包含@ExcelModel和@ExcelColumn注解
+     */
+    Class<T> modelClass();
+
+    /**
+     * 查询条件类，用于恢复时反序列化查询条件
+     *
+     * @return 查询条件类
+     */
+    Class<Q> queryClass();
+
+    /**
+     * 查询下一页
+     *
+     * @param query    查询条件
+     * @param lastKey  上一页最后一条记录的key，第一页为null
+     * @param pageSize 分页条数
+     * @return 分页数据及下一页的游标key
+     */
+    ExportCursorPage<T, String> page(Q query, String lastKey, int pageSize);
+
+    /**
+     * 按导出列投影查询下一页，处理器可覆盖此方法只查询导出的列，默认查询全部列
+     *
+     * @param query      查询条件
+     * @param lastKey    上一页最后一条记录的key，第一页为null
+     * @param pageSize   分页条数
+     * @param projection 导出列投影，恢复时按断点中的排除字段重新解析
+     * @return 分页数据及下一页的游标key
+     */
+    default ExportCursorPage<T, String> page(Q query, String lastKey, int pageSize, ExportProjection projection) {
+        return page(query, lastKey, pageSize);
+    }
+}
@@ -0,0 +1,38 @@
+package com.oppo.corehrpt.basic.config;
+
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+public class ThreadPoolModeConfig {
+
+    /**
+     * 主线程池（threadPoolTaskExecutor）执行模式<br/>
+     * <p>
+     * platform: 平台线程，按 thread-pool.corePoolSize/maxPoolSize/queueCapacity 配置（默认）
+     * virtual: 每个任务一个虚拟线程，由 thread-pool.maxConcurrency 信号量限制同时执行的任务数，需JDK 21及以上
+     * </p>
+     */
+    @Value("${thread-pool.mode:platform}")
+    private String threadPoolMode;
+
+    /**
+     * 主线程池虚拟线程模式下同时执行的任务数
+     */
+    @Value("${thread-pool.maxConcurrency:256}")
+    private int threadPoolMaxConcurrency;
+
+    /**
+     * 异步任务线程池（asyncTaskThreadPoolTaskExecutor）执行模式，取值同 thread-pool.mode
+     */
+    @Value("${async-task-thread-pool.mode:platform}")
+    private String asyncTaskThreadPoolMode;
+
+    /**
+     * 异步任务线程池虚拟线程模式下同时执行的任务数
+     */
+    @Value("${async-task-thread-pool.maxConcurrency:256}")
+    private int asyncTaskThreadPoolMaxConcurrency;
+}
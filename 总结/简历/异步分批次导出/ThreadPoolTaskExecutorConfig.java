@@ -15,6 +15,8 @@ import javax.annotation.Resource;
 import java.lang.reflect.Method;
 import java.util.concurrent.Executor;
 import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 
 @Slf4j
@@ -22,9 +24,15 @@ import java.util.concurrent.ThreadPoolExecutor;
 @ConditionalOnProperty(value = "thread-pool.enable", havingValue = "true", matchIfMissing = true)
 public class ThreadPoolTaskExecutorConfig {
 
+    /** 虚拟线程执行模式 */
+    private static final String MODE_VIRTUAL = "virtual";
+
     @Resource
     private ThreadPoolConfig threadPoolConfig;
 
+    @Resource
+    private ThreadPoolModeConfig threadPoolModeConfig;
+
 
     @Resource
     private AutoAssignThreadPoolConfig autoAssignThreadPoolConfig;
@@ -90,6 +98,7 @@ public class ThreadPoolTaskExecutorConfig {
         executor.setAwaitTerminationSeconds(threadPoolConfig.getAwaitTerminationSeconds());
         executor.setRejectedExecutionHandler(rejectedExecutionHandler((threadPoolConfig.getRejectedExecutionHandler())));
         executor.setThreadGroupName(threadPoolConfig.getThreadGroupName());
+        applyMode(executor, threadPoolModeConfig.getThreadPoolMode(), threadPoolModeConfig.getThreadPoolMaxConcurrency(), "ec-vt-");
     }
 
     private void buildAsyncTaskThreadPool(ThreadPoolTaskExecutor executor) {
@@ -111,6 +120,7 @@ public class ThreadPoolTaskExecutorConfig {
         executor.setAwaitTerminationSeconds(asyncTaskThreadPoolConfig.getAwaitTerminationSeconds());
         executor.setRejectedExecutionHandler(rejectedExecutionHandler((asyncTaskThreadPoolConfig.getRejectedExecutionHandler())));
         executor.setThreadGroupName(asyncTaskThreadPoolConfig.getThreadGroupName());
+        applyMode(executor, threadPoolModeConfig.getAsyncTaskThreadPoolMode(), threadPoolModeConfig.getAsyncTaskThreadPoolMaxConcurrency(), "ec-async-vt-");
     }
 
     private void buildAutoAssignThreadPool(ThreadPoolTaskExecutor executor) {
@@ -134,6 +144,71 @@ public class ThreadPoolTaskExecutorConfig {
         executor.setThreadGroupName(autoAssignThreadPoolConfig.getThreadGroupName());
     }
 
+    /**
+     * 按执行模式调整线程池
+     * <p>
+     * virtual: 线程工厂换成虚拟线程，不限线程数、不排队（每个任务一个虚拟线程，空闲线程复用），
+     * 由信号量限制同时执行的任务数，超出的任务在各自的虚拟线程中等待，不会触发拒绝策略或回落到调用线程。
+     * 仍是同一个 ThreadPoolTaskExecutor（含 WrappedThreadPoolTaskExecutor 的链路追踪包装），AsyncConfigurer 不受影响。
+     * 运行环境不支持虚拟线程时保持平台线程配置
+     * </p>
+     *
+     * @param executor         线程池
+     * @param mode             执行模式
+     * @param maxConcurrency   虚拟线程模式下同时执行的任务数
+     * @param threadNamePrefix 虚拟线程名前缀
+     */
+    private void applyMode(ThreadPoolTaskExecutor executor, String mode, int maxConcurrency, String threadNamePrefix) {
+        if (!MODE_VIRTUAL.equalsIgnoreCase(mode)) {
+            return;
+        }
+        ThreadFactory threadFactory = virtualThreadFactory(threadNamePrefix);
+        if (threadFactory == null) {
+            log.warn("Virtual threads are not supported by the current JVM, fall back to platform threads, prefix:{}", threadNamePrefix);
+            return;
+        }
+        executor.setThreadFactory(threadFactory);
+        executor.setCorePoolSize(0);
+        executor.setMaxPoolSize(Integer.MAX_VALUE);
+        executor.setQueueCapacity(0);
+        Semaphore semaphore = new Semaphore(Math.max(1, maxConcurrency));
+        executor.setTaskDecorator(runnable -> () -> {
+            boolean acquired = false;
+            try {
+                semaphore.acquire();
+                acquired = true;
+            } catch (InterruptedException e) {
+                // 等待许可时被中断（如关闭线程池）仍执行任务并保留中断标记，由任务自行结束；
+                // 直接返回会使任务的 Future 永远不会完成，调用方一直等待
+                Thread.currentThread().interrupt();
+            }
+            try {
+                runnable.run();
+            } finally {
+                if (acquired) {
+                    semaphore.release();
+                }
+            }
+        });
+    }
+
+    /**
+     * 通过反射创建虚拟线程工厂，兼容以JDK 8编译
+     *
+     * @param threadNamePrefix 线程名前缀
+     * @return 虚拟线程工厂，不支持时返回null
+     */
+    private ThreadFactory virtualThreadFactory(String threadNamePrefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, threadNamePrefix, 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
     private RejectedExecutionHandler rejectedExecutionHandler(String handlerName) {
         RejectedExecutionHandler rejectedExecutionHandler;
         switch (handlerName) {
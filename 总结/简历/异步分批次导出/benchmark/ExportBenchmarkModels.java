@@ -0,0 +1,354 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+import com.oppo.corehrpt.basic.export.annotation.ExcelColumn;
+import com.oppo.corehrpt.basic.export.annotation.ExcelModel;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * 基准测试用的合成数据模型：窄表、宽表、长文本、日期密集
+ */
+public final class ExportBenchmarkModels {
+
+    /** 窄表，4列 */
+    public static final String NARROW = "narrow";
+
+    /** 宽表，40列 */
+    public static final String WIDE = "wide";
+
+    /** 长文本 */
+    public static final String STRING_HEAVY = "string";
+
+    /** 日期密集 */
+    public static final String DATE_HEAVY = "date";
+
+    private static final String TEXT = "这是一段用于导出基准测试的长文本，包含中文和English混排内容，用于模拟备注、地址等字段。";
+
+    private ExportBenchmarkModels() {
+    }
+
+    /**
+     * 模型类
+     *
+     * @param model 模型名称
+     * @return 模型类
+     */
+    public static Class<?> modelClass(String model) {
+        switch (model) {
+            case NARROW:
+                return NarrowRow.class;
+            case WIDE:
+                return WideRow.class;
+            case STRING_HEAVY:
+                return StringHeavyRow.class;
+            case DATE_HEAVY:
+                return DateHeavyRow.class;
+            default:
+                throw new IllegalArgumentException("Unknown model: " + model);
+        }
+    }
+
+    /**
+     * 生成合成数据
+     *
+     * @param model 模型名称
+     * @param count 行数
+     * @return 数据列表
+     */
+    public static List<Object> rows(String model, int count) {
+        IntFunction<Object> factory;
+        switch (model) {
+            case NARROW:
+                factory = ExportBenchmarkModels::narrow;
+                break;
+            case WIDE:
+                factory = ExportBenchmarkModels::wide;
+                break;
+            case STRING_HEAVY:
+                factory = ExportBenchmarkModels::stringHeavy;
+                break;
+            case DATE_HEAVY:
+                factory = ExportBenchmarkModels::dateHeavy;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown model: " + model);
+        }
+        List<Object> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            list.add(factory.apply(i));
+        }
+        return list;
+    }
+
+    private static NarrowRow narrow(int i) {
+        NarrowRow row = new NarrowRow();
+        row.setEmpNo(String.valueOf(80000000 + i));
+        row.setName("员工" + i);
+        row.setAge(20 + i % 40);
+        row.setSalary(BigDecimal.valueOf(1000000L + i, 2));
+        return row;
+    }
+
+    private static WideRow wide(int i) {
+        WideRow row = new WideRow();
+        row.setCol01(i * 1L);
+        row.setCol02(BigDecimal.valueOf(i, 2));
+        row.setCol03(i % 10);
+        row.setCol04("v" + i + "-4");
+        row.setCol05(i * 5L);
+        row.setCol06(BigDecimal.valueOf(i, 2));
+        row.setCol07(i % 14);
+        row.setCol08("v" + i + "-8");
+        row.setCol09(i * 9L);
+        row.setCol10(BigDecimal.valueOf(i, 2));
+        row.setCol11(i % 18);
+        row.setCol12("v" + i + "-12");
+        row.setCol13(i * 13L);
+        row.setCol14(BigDecimal.valueOf(i, 2));
+        row.setCol15(i % 22);
+        row.setCol16("v" + i + "-16");
+        row.setCol17(i * 17L);
+        row.setCol18(BigDecimal.valueOf(i, 2));
+        row.setCol19(i % 26);
+        row.setCol20("v" + i + "-20");
+        row.setCol21(i * 21L);
+        row.setCol22(BigDecimal.valueOf(i, 2));
+        row.setCol23(i % 30);
+        row.setCol24("v" + i + "-24");
+        row.setCol25(i * 25L);
+        row.setCol26(BigDecimal.valueOf(i, 2));
+        row.setCol27(i % 34);
+        row.setCol28("v" + i + "-28");
+        row.setCol29(i * 29L);
+        row.setCol30(BigDecimal.valueOf(i, 2));
+        row.setCol31(i % 38);
+        row.setCol32("v" + i + "-32");
+        row.setCol33(i * 33L);
+        row.setCol34(BigDecimal.valueOf(i, 2));
+        row.setCol35(i % 42);
+        row.setCol36("v" + i + "-36");
+        row.setCol37(i * 37L);
+        row.setCol38(BigDecimal.valueOf(i, 2));
+        row.setCol39(i % 46);
+        row.setCol40("v" + i + "-40");
+        return row;
+    }
+
+    private static StringHeavyRow stringHeavy(int i) {
+        StringHeavyRow row = new StringHeavyRow();
+        row.setText1(TEXT + i);
+        row.setText2(TEXT + TEXT + i);
+        row.setText3(i + TEXT);
+        row.setText4(TEXT.substring(i % 20));
+        row.setText5(TEXT + TEXT + TEXT);
+        row.setText6("\"" + TEXT + "\",\n" + i);
+        return row;
+    }
+
+    private static DateHeavyRow dateHeavy(int i) {
+        DateHeavyRow row = new DateHeavyRow();
+        long millis = 1600000000000L + i * 60000L;
+        row.setCreateTime(new Date(millis));
+        row.setUpdateTime(new Date(millis + 3600000L));
+        row.setHireDate(new Date(millis));
+        row.setStartTime(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(i));
+        row.setEndTime(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(i + 30));
+        row.setBirthday(LocalDate.of(1990, 1, 1).plusDays(i % 10000));
+        return row;
+    }
+
+    @Data
+    @ExcelModel(taskType = "BENCHMARK_NARROW", fileName = "窄表", sheetName = "窄表")
+    public static class NarrowRow {
+
+        @ExcelColumn(title = "工号", index = 1)
+        private String empNo;
+
+        @ExcelColumn(title = "姓名", index = 2)
+        private String name;
+
+        @ExcelColumn(title = "年龄", index = 3)
+        private Integer age;
+
+        @ExcelColumn(title = "薪资", index = 4)
+        private BigDecimal salary;
+    }
+
+    @Data
+    @ExcelModel(taskType = "BENCHMARK_WIDE", fileName = "宽表", sheetName = "宽表")
+    public static class WideRow {
+
+        @ExcelColumn(title = "列01", index = 1)
+        private Long col01;
+
+        @ExcelColumn(title = "列02", index = 2)
+        private BigDecimal col02;
+
+        @ExcelColumn(title = "列03", index = 3)
+        private Integer col03;
+
+        @ExcelColumn(title = "列04", index = 4)
+        private String col04;
+
+        @ExcelColumn(title = "列05", index = 5)
+        private Long col05;
+
+        @ExcelColumn(title = "列06", index = 6)
+        private BigDecimal col06;
+
+        @ExcelColumn(title = "列07", index = 7)
+        private Integer col07;
+
+        @ExcelColumn(title = "列08", index = 8)
+        private String col08;
+
+        @ExcelColumn(title = "列09", index = 9)
+        private Long col09;
+
+        @ExcelColumn(title = "列10", index = 10)
+        private BigDecimal col10;
+
+        @ExcelColumn(title = "列11", index = 11)
+        private Integer col11;
+
+        @ExcelColumn(title = "列12", index = 12)
+        private String col12;
+
+        @ExcelColumn(title = "列13", index = 13)
+        private Long col13;
+
+        @ExcelColumn(title = "列14", index = 14)
+        private BigDecimal col14;
+
+        @ExcelColumn(title = "列15", index = 15)
+        private Integer col15;
+
+        @ExcelColumn(title = "列16", index = 16)
+        private String col16;
+
+        @ExcelColumn(title = "列17", index = 17)
+        private Long col17;
+
+        @ExcelColumn(title = "列18", index = 18)
+        private BigDecimal col18;
+
+        @ExcelColumn(title = "列19", index = 19)
+        private Integer col19;
+
+        @ExcelColumn(title = "列20", index = 20)
+        private String col20;
+
+        @ExcelColumn(title = "列21", index = 21)
+        private Long col21;
+
+        @ExcelColumn(title = "列22", index = 22)
+        private BigDecimal col22;
+
+        @ExcelColumn(title = "列23", index = 23)
+        private Integer col23;
+
+        @ExcelColumn(title = "列24", index = 24)
+        private String col24;
+
+        @ExcelColumn(title = "列25", index = 25)
+        private Long col25;
+
+        @ExcelColumn(title = "列26", index = 26)
+        private BigDecimal col26;
+
+        @ExcelColumn(title = "列27", index = 27)
+        private Integer col27;
+
+        @ExcelColumn(title = "列28", index = 28)
+        private String col28;
+
+        @ExcelColumn(title = "列29", index = 29)
+        private Long col29;
+
+        @ExcelColumn(title = "列30", index = 30)
+        private BigDecimal col30;
+
+        @ExcelColumn(title = "列31", index = 31)
+        private Integer col31;
+
+        @ExcelColumn(title = "列32", index = 32)
+        private String col32;
+
+        @ExcelColumn(title = "列33", index = 33)
+        private Long col33;
+
+        @ExcelColumn(title = "列34", index = 34)
+        private BigDecimal col34;
+
+        @ExcelColumn(title = "列35", index = 35)
+        private Integer col35;
+
+        @ExcelColumn(title = "列36", index = 36)
+        private String col36;
+
+        @ExcelColumn(title = "列37", index = 37)
+        private Long col37;
+
+        @ExcelColumn(title = "列38", index = 38)
+        private BigDecimal col38;
+
+        @ExcelColumn(title = "列39", index = 39)
+        private Integer col39;
+
+        @ExcelColumn(title = "列40", index = 40)
+        private String col40;
+    }
+
+    @Data
+    @ExcelModel(taskType = "BENCHMARK_STRING", fileName = "长文本", sheetName = "长文本")
+    public static class StringHeavyRow {
+
+        @ExcelColumn(title = "文本1", index = 1)
+        private String text1;
+
+        @ExcelColumn(title = "文本2", index = 2)
+        private String text2;
+
+        @ExcelColumn(title = "文本3", index = 3)
+        private String text3;
+
+        @ExcelColumn(title = "文本4", index = 4)
+        private String text4;
+
+        @ExcelColumn(title = "文本5", index = 5)
+        private String text5;
+
+        @ExcelColumn(title = "文本6", index = 6)
+        private String text6;
+    }
+
+    @Data
+    @ExcelModel(taskType = "BENCHMARK_DATE", fileName = "日期", sheetName = "日期")
+    public static class DateHeavyRow {
+
+        @ExcelColumn(title = "创建时间", index = 1, dateTimeFormat = "yyyy-MM-dd HH:mm:ss")
+        private Date createTime;
+
+        @ExcelColumn(title = "更新时间", index = 2, dateTimeFormat = "yyyy-MM-dd HH:mm:ss")
+        private Date updateTime;
+
+        @ExcelColumn(title = "入职日期", index = 3, dateTimeFormat = "yyyy-MM-dd")
+        private Date hireDate;
+
+        @ExcelColumn(title = "开始时间", index = 4, dateTimeFormat = "yyyy-MM-dd HH:mm")
+        private LocalDateTime startTime;
+
+        @ExcelColumn(title = "结束时间", index = 5, dateTimeFormat = "yyyy-MM-dd HH:mm")
+        private LocalDateTime endTime;
+
+        @ExcelColumn(title = "生日", index = 6)
+        private LocalDate birthday;
+    }
+}
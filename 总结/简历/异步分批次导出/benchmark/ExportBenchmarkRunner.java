@@ -0,0 +1,26 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 导出基准测试入口，吞吐量旁输出GC分配率（gc.alloc.rate.norm 即每次操作分配字节数）
+ * <p>
+ * 用法：java -cp benchmarks.jar com.oppo.corehrpt.basic.export.helper.ExportBenchmarkRunner [基准类名正则]
+ * </p>
+ */
+public class ExportBenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : ".*Benchmark.*";
+        Options options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .jvmArgsAppend("-Xms2g", "-Xmx2g")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,32 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+import com.oppo.corehrpt.basic.pojo.query.page.PageQuery;
+import com.oppo.gcommon.starter.mybatis.pojo.vo.PageResultVO;
+
+import java.util.List;
+
+/**
+ * 内存分页查询处理器，按 query 的页码、分页条数从内存列表中截取，排除数据库耗时
+ *
+ * @param <T> 数据模型类型
+ */
+public class InMemoryExportPageHandler<T> implements ExportHelper.ExportPageHandler<T> {
+
+    private final List<T> rows;
+
+    private final PageQuery query;
+
+    public InMemoryExportPageHandler(List<T> rows, PageQuery query) {
+        this.rows = rows;
+        this.query = query;
+    }
+
+    @Override
+    public PageResultVO<T> page() {
+        int from = Math.min(rows.size(), (query.getPageIndex() - 1) * query.getPageSize());
+        int to = Math.min(rows.size(), from + query.getPageSize());
+        PageResultVO<T> pageResult = new PageResultVO<>();
+        pageResult.setRows(rows.subList(from, to));
+        return pageResult;
+    }
+}
@@ -0,0 +1,82 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+import com.alibaba.excel.ExcelWriter;
+import com.oppo.corehrpt.basic.export.entity.ExcelModelEntity;
+import com.oppo.corehrpt.basic.export.entity.ExportOptions;
+import com.oppo.corehrpt.basic.pojo.query.page.PageQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 完整导出基准：内存分页查询 -> 转换 -> 写入本地XLSX文件，对比不同分页条数、预取页数
+ * <p>
+ * rows 超过 1000000 时（如 -p rows=1100000）覆盖Sheet页切换
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class QueryAndWriteBenchmark {
+
+    @Param({ExportBenchmarkModels.NARROW, ExportBenchmarkModels.WIDE, ExportBenchmarkModels.STRING_HEAVY, ExportBenchmarkModels.DATE_HEAVY})
+    private String model;
+
+    @Param({"200", "500", "2000", "5000"})
+    private int pageSize;
+
+    @Param({"0", "2"})
+    private int prefetchDepth;
+
+    @Param({"100000"})
+    private int rows;
+
+    private List<Object> data;
+
+    private ExcelModelEntity entity;
+
+    private File file;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        data = ExportBenchmarkModels.rows(model, rows);
+        entity = ExportHelper2.extractExcelModel(ExportBenchmarkModels.modelClass(model), null);
+        file = Files.createTempFile("export-benchmark-", ".xlsx").toFile();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file.toPath());
+    }
+
+    @Benchmark
+    public long queryAndWrite() {
+        PageQuery query = new PageQuery();
+        query.setExportPageSize(pageSize);
+        ExportJobContext ctx = new ExportJobContext(0L, entity, new ExportOptions().setPrefetchDepth(prefetchDepth));
+        ExportPageFetcher fetcher = ExportHelper2.getOffsetPageFetcher(ctx, new InMemoryExportPageHandler<>(data, query), query);
+        ExcelWriter writer = ExportHelper2.getExcelWriter(file);
+        ExportHelper2.queryAndWrite(writer, ctx, fetcher);
+        writer.finish();
+        return file.length();
+    }
+}
@@ -0,0 +1,62 @@
+package com.oppo.corehrpt.basic.export.helper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 行转换基准：一页数据转换为Excel行数据（getDataList）及 @ExcelColumn 字段解析（extractSortFields）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowConversionBenchmark {
+
+    @Param({ExportBenchmarkModels.NARROW, ExportBenchmarkModels.WIDE, ExportBenchmarkModels.STRING_HEAVY, ExportBenchmarkModels.DATE_HEAVY})
+    private String model;
+
+    @Param({"500", "2000"})
+    private int pageSize;
+
+    private List<Object> page;
+
+    private Field[] fields;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        page = ExportBenchmarkModels.rows(model, pageSize);
+        fields = ExportBenchmarkModels.modelClass(model).getDeclaredFields();
+    }
+
+    /**
+     * 一页数据转换，列访问器已缓存
+     */
+    @Benchmark
+    public List<List<Object>> convertPage() {
+        return ExportHelper2.getDataList(page, null);
+    }
+
+    /**
+     * 未缓存的字段过滤、排序
+     */
+    @Benchmark
+    public List<Field> extractSortFields() {
+        return ExportHelper2.extractSortFields(fields, null, null);
+    }
+}
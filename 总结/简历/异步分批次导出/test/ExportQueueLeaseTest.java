@@ -0,0 +1,144 @@
+package com.oppo.corehrpt.basic.service;
+
+import com.baomidou.mybatisplus.test.autoconfigure.MybatisPlusTest;
+import com.oppo.corehrpt.basic.enums.ExportStatusEnum;
+import com.oppo.corehrpt.basic.export.entity.ComExportRecordVO;
+import com.oppo.corehrpt.basic.mapper.ComExportRecordMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 集群导出队列租约测试，H2内存库执行真实的条件更新：认领 -> 续期 -> 过期 -> 重新认领 -> 按租约结束
+ */
+@MybatisPlusTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:export_queue;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "mybatis-plus.configuration.map-underscore-to-camel-case=true"
+})
+class ExportQueueLeaseTest {
+
+    private static final String TASK_TYPE = "userExport";
+
+    private static final String NODE_A = "node-a";
+
+    private static final String NODE_B = "node-b";
+
+    private static final String CREATOR = "80000001";
+
+    @Autowired
+    private ComExportRecordMapper comExportRecordMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private BaseCommonService2 baseCommonService2;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS com_export_record");
+        jdbcTemplate.execute("CREATE TABLE com_export_record ("
+                + "id BIGINT PRIMARY KEY, task_type VARCHAR(64), creator VARCHAR(64), status INT, error_msg VARCHAR(2000), "
+                + "file_id VARCHAR(128), end_time TIMESTAMP, update_date TIMESTAMP, update_by VARCHAR(64), update_by_name VARCHAR(64), "
+                + "job_payload CLOB, lease_owner VARCHAR(128), lease_expire_time TIMESTAMP, "
+                + "claim_count INT NOT NULL DEFAULT 0, cancel_requested BOOLEAN NOT NULL DEFAULT FALSE)");
+        jdbcTemplate.update("INSERT INTO com_export_record (id, task_type, creator, status, job_payload) VALUES (1, ?, ?, ?, '{}')",
+                TASK_TYPE, CREATOR, ExportStatusEnum.WAITING.getCode());
+        baseCommonService2 = new BaseCommonService2();
+        ReflectionTestUtils.setField(baseCommonService2, "baseMapper", comExportRecordMapper);
+    }
+
+    @Test
+    void claimRenewExpireReclaim() {
+        Date now = new Date();
+        assertEquals(Collections.singletonList(1L),
+                baseCommonService2.listClaimableExportJobIds(Collections.singleton(TASK_TYPE), now, 3, 10));
+
+        // A认领后租约未过期，B不能认领
+        assertNotNull(baseCommonService2.claimExportJob(1L, NODE_A, now, after(now, 30)));
+        assertNull(baseCommonService2.claimExportJob(1L, NODE_B, now, after(now, 30)));
+        assertTrue(baseCommonService2.listClaimableExportJobIds(Collections.singleton(TASK_TYPE), now, 3, 10).isEmpty());
+
+        // 只有持有租约的节点可以续期
+        assertTrue(baseCommonService2.renewExportJobLease(1L, NODE_A, after(now, 60)));
+        assertFalse(baseCommonService2.renewExportJobLease(1L, NODE_B, after(now, 60)));
+
+        // 租约过期后B重新认领，A续期失败
+        Date expired = after(now, 61);
+        assertNotNull(baseCommonService2.claimExportJob(1L, NODE_B, expired, after(expired, 30)));
+        assertFalse(baseCommonService2.renewExportJobLease(1L, NODE_A, after(expired, 30)));
+        assertEquals(2, claimCount());
+
+        // A的结束更新被租约条件拦截，B的结果生效
+        assertFalse(baseCommonService2.finishExportJob(finished(ExportStatusEnum.FAILED, null), NODE_A));
+        assertTrue(baseCommonService2.finishExportJob(finished(ExportStatusEnum.SUCCESS, "file-b"), NODE_B));
+        assertEquals(ExportStatusEnum.SUCCESS.getCode(), status());
+    }
+
+    @Test
+    void failAfterMaxClaims() {
+        Date now = new Date();
+        assertNotNull(baseCommonService2.claimExportJob(1L, NODE_A, now, after(now, 30)));
+        Date expired = after(now, 31);
+        assertEquals(Collections.emptyList(),
+                baseCommonService2.listClaimableExportJobIds(Collections.singleton(TASK_TYPE), expired, 1, 10));
+        assertEquals(1, baseCommonService2.failExhaustedExportJobs(expired, 1, "Export failed after 1 attempts."));
+        assertEquals(ExportStatusEnum.FAILED.getCode(), status());
+        assertNull(baseCommonService2.claimExportJob(1L, NODE_B, expired, after(expired, 30)));
+    }
+
+    @Test
+    void cancelQueuedAndRunning() {
+        Date now = new Date();
+        // 其他用户不能取消
+        assertFalse(baseCommonService2.cancelQueuedExportJob(1L, "80000002", now));
+
+        // 已认领的任务不能直接取消，标记后由执行节点读取
+        assertNotNull(baseCommonService2.claimExportJob(1L, NODE_A, now, after(now, 30)));
+        assertFalse(baseCommonService2.cancelQueuedExportJob(1L, CREATOR, now));
+        assertTrue(baseCommonService2.listCancelRequestedExportJobIds(Collections.singleton(1L)).isEmpty());
+        assertTrue(baseCommonService2.requestCancelExportJob(1L, CREATOR));
+        assertEquals(Collections.singletonList(1L), baseCommonService2.listCancelRequestedExportJobIds(Collections.singleton(1L)));
+
+        // 租约过期后未被认领的任务直接取消，不再被认领
+        Date expired = after(now, 31);
+        assertTrue(baseCommonService2.cancelQueuedExportJob(1L, CREATOR, expired));
+        assertEquals(ExportStatusEnum.CANCELLED.getCode(), status());
+        assertNull(baseCommonService2.claimExportJob(1L, NODE_B, expired, after(expired, 30)));
+        assertFalse(baseCommonService2.requestCancelExportJob(1L, CREATOR));
+    }
+
+    private static Date after(Date date, long seconds) {
+        return new Date(date.getTime() + TimeUnit.SECONDS.toMillis(seconds));
+    }
+
+    private static ComExportRecordVO finished(ExportStatusEnum status, String fileId) {
+        ComExportRecordVO recordVO = new ComExportRecordVO();
+        recordVO.setId(1L);
+        recordVO.setStatus(status.getCode());
+        recordVO.setFileId(fileId);
+        recordVO.setEndTime(new Date());
+        return recordVO;
+    }
+
+    private int status() {
+        return jdbcTemplate.queryForObject("SELECT status FROM com_export_record WHERE id = 1", Integer.class);
+    }
+
+    private int claimCount() {
+        return jdbcTemplate.queryForObject("SELECT claim_count FROM com_export_record WHERE id = 1", Integer.class);
+    }
+}